@@ -13,8 +13,11 @@ PRINT     : 'print' ;
 
 // Literals
 INT       : [1-9][0-9]* | '0' ;
+DOUBLE    : [0-9]+ '.' [0-9]+ EXPONENT? | [0-9]+ EXPONENT ;
+fragment EXPONENT : [eE] [+-]? [0-9]+ ;
 BOOL      : ('true' | 'false');
 NULL      : 'null'            ;
+STRING    : '"' ( '\\' . | ~["\\\r\n] )* '"' ;
 
 // Symbols
 MUL       : '*' ;
@@ -54,20 +57,32 @@ stat: expr SEPARATOR                                    # bareExpr
     ;
 
 // Expression
-expr: expr op=( '*' | '/' | '%' ) expr                  # MulDivMod
+expr: expr '.' ID                                       # prop
+    | expr op=( '*' | '/' | '%' ) expr                  # MulDivMod
     | '(' expr ')'                                      # parens
     | expr op=(ADD | SUB) expr                          # AddSub
     | expr op=(GT | LT | GE | LE | EQ) expr             # Comparison
+    | <assoc=right> expr '.' ID ASSIGN expr             # propAssign
     | FUNCTION '(' params? ')' block                    # funcDecl
     | ID '(' args? ')'                                  # funcApp
+    | ID '[' expr ']' ASSIGN expr                       # indexAssign
+    | ID '[' expr ']'                                   # index
     | VAR ID ASSIGN expr                                # varDecl
     | ID                                                # varRef
     | ID ASSIGN expr                                    # varAssign
+    | '[' args? ']'                                     # listLit
+    | '[|' args? '|]'                                   # arrayLit
+    | '{' (property (',' property)*)? '}'               # objectLit
     | INT                                               # int
+    | DOUBLE                                            # double
     | BOOL                                              # bool
     | NULL                                              # null
+    | STRING                                            # string
     ;
 
+/** A property of an object literal */
+property: ID ':' expr ;
+
 /** Parameters for function declarations */
 params: ID (',' ID)* ;
 
@@ -0,0 +1,63 @@
+package edu.sjsu.fwjs;
+
+import java.lang.management.ManagementFactory;
+
+import org.antlr.v4.runtime.CharStreams;
+
+/**
+ * Measures the bytes allocated and the time taken per iteration of
+ * while.fwjs-style counting loops.
+ *
+ * Run with: make bench
+ * (allocation figures need a HotSpot JVM; elsewhere they print as -1)
+ */
+public class AllocationBenchmark {
+    private static final int ITERATIONS = 1000000;
+    private static final int ROUNDS = 5;
+
+    // Each program runs a loop of n iterations, where n is a format argument.
+    // Programs with short loops are run repeatedly, for ITERATIONS in all.
+    private static final String[] PROGRAMS = {
+        // Counter stays within the small-integer cache
+        "var i = 0; while (i < %d) { i = i + 1; }",
+        // Sum leaves it
+        "var i = 0; var sum = 0; while (i < %d) { sum = sum + i; i = i + 1; }",
+        // Loop in a function, on locals
+        "var f = function(n) { var i = 0; while (i < n) { i = i + 1; } i; }; f(%d);",
+    };
+    private static final int[] SIZES = { 1000, ITERATIONS, ITERATIONS };
+
+    public static void main(String[] args) {
+        System.out.println("bytes/iter  ns/iter  program");
+        for (int p = 0; p < PROGRAMS.length; p++) {
+            String src = String.format(PROGRAMS[p], SIZES[p]);
+            Expression prog = Interpreter.parse(CharStreams.fromString(src));
+            int runs = ITERATIONS / SIZES[p];
+            double bytes = Double.MAX_VALUE;
+            double time = Double.MAX_VALUE;
+            for (int r = 0; r < ROUNDS; r++) {
+                long allocated = allocatedBytes();
+                long start = System.nanoTime();
+                for (int k = 0; k < runs; k++) {
+                    prog.evaluate(new Environment());
+                }
+                time = Math.min(time, (System.nanoTime() - start) / (double) ITERATIONS);
+                bytes = Math.min(bytes, (allocatedBytes() - allocated) / (double) ITERATIONS);
+            }
+            System.out.printf("%10.1f  %7.1f  %s%n", bytes, time, src);
+        }
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or a negative
+     * number if the JVM cannot tell.
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,107 @@
+package edu.sjsu.fwjs;
+
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * Measures how reads and writes of globals in a concurrent global
+ * environment scale with the number of threads.
+ *
+ * Each thread reads a handful of globals, or assigns its own global,
+ * for a fixed number of operations; the table reports the total
+ * throughput.  The single-threaded rows also show the cost of the
+ * concurrent mode against a plain global environment.
+ *
+ * Run with: make bench
+ */
+public class ConcurrentEnvironmentBenchmark {
+    private static final int GLOBALS = 16;
+    private static final int OPERATIONS = 4000000;
+    private static final int ROUNDS = 5;
+
+    private static final Symbol[] NAMES = new Symbol[GLOBALS];
+    static {
+        for (int i = 0; i < GLOBALS; i++) {
+            NAMES[i] = Symbol.of("g" + i);
+        }
+    }
+
+    /** Keeps the JIT from discarding the lookups. */
+    private static volatile int sink;
+
+    private interface Workload {
+        void run(Environment env, int thread);
+    }
+
+    private static final Workload READ = (env, thread) -> {
+        int sum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            sum += env.resolveVar(NAMES[i & (GLOBALS - 1)]).hashCode();
+        }
+        sink += sum;
+    };
+
+    private static final Workload WRITE = (env, thread) -> {
+        Symbol name = NAMES[thread & (GLOBALS - 1)];
+        Value v = new IntVal(thread);
+        for (int i = 0; i < OPERATIONS; i++) {
+            env.updateVar(name, v);
+        }
+    };
+
+    public static void main(String[] args) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("cores: " + cores);
+        System.out.println("mode        threads  read Mops/s  write Mops/s");
+        report("plain", false, 1);
+        for (int threads = 1; threads <= Math.max(cores, 1) && threads <= GLOBALS; threads *= 2) {
+            report("concurrent", true, threads);
+        }
+    }
+
+    private static void report(String mode, boolean concurrent, int threads) throws Exception {
+        double read = 0;
+        double write = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            read = Math.max(read, throughput(global(concurrent), READ, threads));
+            write = Math.max(write, throughput(global(concurrent), WRITE, threads));
+        }
+        System.out.printf("%-10s  %7d  %11.1f  %12.1f%n", mode, threads, read, write);
+    }
+
+    private static Environment global(boolean concurrent) {
+        Environment env = new Environment(concurrent);
+        for (int i = 0; i < GLOBALS; i++) {
+            env.createVar(NAMES[i], new IntVal(i));
+        }
+        return env;
+    }
+
+    /**
+     * Runs the workload on the given number of threads at once,
+     * returning millions of operations per second across all of them.
+     */
+    private static double throughput(Environment env, Workload work, int threads)
+            throws Exception {
+        CyclicBarrier start = new CyclicBarrier(threads + 1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                work.run(env, id);
+            });
+            workers[t].start();
+        }
+        start.await();
+        long begin = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        return (double) OPERATIONS * threads / elapsed * 1000;
+    }
+}
@@ -0,0 +1,69 @@
+package edu.sjsu.fwjs;
+
+/**
+ * Measures the cost of looking up and updating a variable by name
+ * as a function of how many scopes out it is bound.
+ *
+ * Run with: make bench
+ */
+public class EnvironmentBenchmark {
+    private static final int[] DEPTHS = { 1, 2, 4, 8, 16, 32 };
+    private static final int ITERATIONS = 2000000;
+    private static final int ROUNDS = 5;
+
+    // Names are interned when the AST is built, not on every lookup
+    private static final Symbol X = Symbol.of("x");
+    private static final Symbol MISSING = Symbol.of("missing");
+
+    /** Keeps the JIT from discarding the lookups. */
+    private static int sink;
+
+    public static void main(String[] args) {
+        System.out.println("depth  resolveVar ns/op  updateVar ns/op  miss ns/op");
+        for (int depth : DEPTHS) {
+            Environment env = chain(depth);
+            double resolve = Double.MAX_VALUE;
+            double update = Double.MAX_VALUE;
+            double miss = Double.MAX_VALUE;
+            for (int r = 0; r < ROUNDS; r++) {
+                resolve = Math.min(resolve, timeResolve(env, X));
+                update = Math.min(update, timeUpdate(env));
+                miss = Math.min(miss, timeResolve(env, MISSING));
+            }
+            System.out.printf("%5d  %17.1f  %15.1f  %10.1f%n", depth, resolve, update, miss);
+        }
+        if (sink == 42) System.out.println();
+    }
+
+    /**
+     * Builds depth nested scopes, with x bound in the outermost one
+     * and a few unrelated locals in each.
+     */
+    private static Environment chain(int depth) {
+        Environment env = new Environment();
+        env.createVar("x", new IntVal(1));
+        for (int i = 1; i < depth; i++) {
+            env = new Environment(env);
+            env.createVar("a", new IntVal(i));
+            env.createVar("b", new IntVal(i));
+        }
+        return env;
+    }
+
+    private static double timeResolve(Environment env, Symbol name) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += env.resolveVar(name).hashCode();
+        }
+        return (System.nanoTime() - start) / (double) ITERATIONS;
+    }
+
+    private static double timeUpdate(Environment env) {
+        Value v = new IntVal(2);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            env.updateVar(X, v);
+        }
+        return (System.nanoTime() - start) / (double) ITERATIONS;
+    }
+}
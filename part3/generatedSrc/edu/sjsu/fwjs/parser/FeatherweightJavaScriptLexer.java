@@ -17,10 +17,11 @@ public class FeatherweightJavaScriptLexer extends Lexer {
 	protected static final PredictionContextCache _sharedContextCache =
 		new PredictionContextCache();
 	public static final int
-		T__0=1, T__1=2, T__2=3, T__3=4, T__4=5, IF=6, ELSE=7, WHILE=8, FUNCTION=9, 
-		VAR=10, PRINT=11, INT=12, BOOL=13, NULL=14, MUL=15, DIV=16, ADD=17, SUB=18, 
-		MOD=19, GT=20, LT=21, GE=22, LE=23, EQ=24, SEPARATOR=25, ASSIGN=26, ID=27, 
-		NEWLINE=28, LINE_COMMENT=29, WS=30, BLOCK_COMMENT=31;
+		T__0=1, T__1=2, T__2=3, T__3=4, T__4=5, T__5=6, T__6=7, T__7=8, T__8=9, 
+		T__9=10, T__10=11, IF=12, ELSE=13, WHILE=14, FUNCTION=15, VAR=16, PRINT=17, 
+		INT=18, DOUBLE=19, BOOL=20, NULL=21, STRING=22, MUL=23, DIV=24, ADD=25, 
+		SUB=26, MOD=27, GT=28, LT=29, GE=30, LE=31, EQ=32, SEPARATOR=33, ASSIGN=34, 
+		ID=35, NEWLINE=36, LINE_COMMENT=37, WS=38, BLOCK_COMMENT=39;
 	public static String[] channelNames = {
 		"DEFAULT_TOKEN_CHANNEL", "HIDDEN"
 	};
@@ -31,28 +32,31 @@ public class FeatherweightJavaScriptLexer extends Lexer {
 
 	private static String[] makeRuleNames() {
 		return new String[] {
-			"T__0", "T__1", "T__2", "T__3", "T__4", "IF", "ELSE", "WHILE", "FUNCTION", 
-			"VAR", "PRINT", "INT", "BOOL", "NULL", "MUL", "DIV", "ADD", "SUB", "MOD", 
-			"GT", "LT", "GE", "LE", "EQ", "SEPARATOR", "ASSIGN", "ID", "NEWLINE", 
-			"LINE_COMMENT", "WS", "BLOCK_COMMENT"
+			"T__0", "T__1", "T__2", "T__3", "T__4", "T__5", "T__6", "T__7", "T__8", 
+			"T__9", "T__10", "IF", "ELSE", "WHILE", "FUNCTION", "VAR", "PRINT", "INT", 
+			"DOUBLE", "EXPONENT", "BOOL", "NULL", "STRING", "MUL", "DIV", "ADD", 
+			"SUB", "MOD", "GT", "LT", "GE", "LE", "EQ", "SEPARATOR", "ASSIGN", "ID", 
+			"NEWLINE", "LINE_COMMENT", "WS", "BLOCK_COMMENT"
 		};
 	}
 	public static final String[] ruleNames = makeRuleNames();
 
 	private static String[] makeLiteralNames() {
 		return new String[] {
-			null, "'('", "')'", "','", "'{'", "'}'", "'if'", "'else'", "'while'", 
-			"'function'", "'var'", "'print'", null, null, "'null'", "'*'", "'/'", 
-			"'+'", "'-'", "'%'", "'>'", "'<'", "'>='", "'<='", "'=='", "';'", "'='"
+			null, "'('", "')'", "'.'", "'['", "']'", "'[|'", "'|]'", "'{'", "','", 
+			"'}'", "':'", "'if'", "'else'", "'while'", "'function'", "'var'", "'print'", 
+			null, null, null, "'null'", null, "'*'", "'/'", "'+'", "'-'", "'%'", 
+			"'>'", "'<'", "'>='", "'<='", "'=='", "';'", "'='"
 		};
 	}
 	private static final String[] _LITERAL_NAMES = makeLiteralNames();
 	private static String[] makeSymbolicNames() {
 		return new String[] {
-			null, null, null, null, null, null, "IF", "ELSE", "WHILE", "FUNCTION", 
-			"VAR", "PRINT", "INT", "BOOL", "NULL", "MUL", "DIV", "ADD", "SUB", "MOD", 
-			"GT", "LT", "GE", "LE", "EQ", "SEPARATOR", "ASSIGN", "ID", "NEWLINE", 
-			"LINE_COMMENT", "WS", "BLOCK_COMMENT"
+			null, null, null, null, null, null, null, null, null, null, null, null, 
+			"IF", "ELSE", "WHILE", "FUNCTION", "VAR", "PRINT", "INT", "DOUBLE", "BOOL", 
+			"NULL", "STRING", "MUL", "DIV", "ADD", "SUB", "MOD", "GT", "LT", "GE", 
+			"LE", "EQ", "SEPARATOR", "ASSIGN", "ID", "NEWLINE", "LINE_COMMENT", "WS", 
+			"BLOCK_COMMENT"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -114,69 +118,100 @@ public class FeatherweightJavaScriptLexer extends Lexer {
 	public ATN getATN() { return _ATN; }
 
 	public static final String _serializedATN =
-		"\3\u608b\ua72a\u8133\ub9ed\u417c\u3be7\u7786\u5964\2!\u00cf\b\1\4\2\t"+
+		"\3\u608b\ua72a\u8133\ub9ed\u417c\u3be7\u7786\u5964\2)\u0119\b\1\4\2\t"+
 		"\2\4\3\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\4\b\t\b\4\t\t\t\4\n\t\n\4\13"+
 		"\t\13\4\f\t\f\4\r\t\r\4\16\t\16\4\17\t\17\4\20\t\20\4\21\t\21\4\22\t\22"+
 		"\4\23\t\23\4\24\t\24\4\25\t\25\4\26\t\26\4\27\t\27\4\30\t\30\4\31\t\31"+
-		"\4\32\t\32\4\33\t\33\4\34\t\34\4\35\t\35\4\36\t\36\4\37\t\37\4 \t \3\2"+
-		"\3\2\3\3\3\3\3\4\3\4\3\5\3\5\3\6\3\6\3\7\3\7\3\7\3\b\3\b\3\b\3\b\3\b\3"+
-		"\t\3\t\3\t\3\t\3\t\3\t\3\n\3\n\3\n\3\n\3\n\3\n\3\n\3\n\3\n\3\13\3\13\3"+
-		"\13\3\13\3\f\3\f\3\f\3\f\3\f\3\f\3\r\3\r\7\ro\n\r\f\r\16\rr\13\r\3\r\5"+
-		"\ru\n\r\3\16\3\16\3\16\3\16\3\16\3\16\3\16\3\16\3\16\5\16\u0080\n\16\3"+
-		"\17\3\17\3\17\3\17\3\17\3\20\3\20\3\21\3\21\3\22\3\22\3\23\3\23\3\24\3"+
-		"\24\3\25\3\25\3\26\3\26\3\27\3\27\3\27\3\30\3\30\3\30\3\31\3\31\3\31\3"+
-		"\32\3\32\3\33\3\33\3\34\3\34\7\34\u00a4\n\34\f\34\16\34\u00a7\13\34\3"+
-		"\35\5\35\u00aa\n\35\3\35\3\35\3\35\3\35\3\36\3\36\3\36\3\36\7\36\u00b4"+
-		"\n\36\f\36\16\36\u00b7\13\36\3\36\3\36\3\37\6\37\u00bc\n\37\r\37\16\37"+
-		"\u00bd\3\37\3\37\3 \3 \3 \3 \7 \u00c6\n \f \16 \u00c9\13 \3 \3 \3 \3 "+
-		"\3 \3\u00c7\2!\3\3\5\4\7\5\t\6\13\7\r\b\17\t\21\n\23\13\25\f\27\r\31\16"+
-		"\33\17\35\20\37\21!\22#\23%\24\'\25)\26+\27-\30/\31\61\32\63\33\65\34"+
-		"\67\359\36;\37= ?!\3\2\b\3\2\63;\3\2\62;\5\2C\\aac|\6\2\62;C\\aac|\4\2"+
-		"\f\f\17\17\4\2\13\13\"\"\2\u00d6\2\3\3\2\2\2\2\5\3\2\2\2\2\7\3\2\2\2\2"+
-		"\t\3\2\2\2\2\13\3\2\2\2\2\r\3\2\2\2\2\17\3\2\2\2\2\21\3\2\2\2\2\23\3\2"+
-		"\2\2\2\25\3\2\2\2\2\27\3\2\2\2\2\31\3\2\2\2\2\33\3\2\2\2\2\35\3\2\2\2"+
-		"\2\37\3\2\2\2\2!\3\2\2\2\2#\3\2\2\2\2%\3\2\2\2\2\'\3\2\2\2\2)\3\2\2\2"+
-		"\2+\3\2\2\2\2-\3\2\2\2\2/\3\2\2\2\2\61\3\2\2\2\2\63\3\2\2\2\2\65\3\2\2"+
-		"\2\2\67\3\2\2\2\29\3\2\2\2\2;\3\2\2\2\2=\3\2\2\2\2?\3\2\2\2\3A\3\2\2\2"+
-		"\5C\3\2\2\2\7E\3\2\2\2\tG\3\2\2\2\13I\3\2\2\2\rK\3\2\2\2\17N\3\2\2\2\21"+
-		"S\3\2\2\2\23Y\3\2\2\2\25b\3\2\2\2\27f\3\2\2\2\31t\3\2\2\2\33\177\3\2\2"+
-		"\2\35\u0081\3\2\2\2\37\u0086\3\2\2\2!\u0088\3\2\2\2#\u008a\3\2\2\2%\u008c"+
-		"\3\2\2\2\'\u008e\3\2\2\2)\u0090\3\2\2\2+\u0092\3\2\2\2-\u0094\3\2\2\2"+
-		"/\u0097\3\2\2\2\61\u009a\3\2\2\2\63\u009d\3\2\2\2\65\u009f\3\2\2\2\67"+
-		"\u00a1\3\2\2\29\u00a9\3\2\2\2;\u00af\3\2\2\2=\u00bb\3\2\2\2?\u00c1\3\2"+
-		"\2\2AB\7*\2\2B\4\3\2\2\2CD\7+\2\2D\6\3\2\2\2EF\7.\2\2F\b\3\2\2\2GH\7}"+
-		"\2\2H\n\3\2\2\2IJ\7\177\2\2J\f\3\2\2\2KL\7k\2\2LM\7h\2\2M\16\3\2\2\2N"+
-		"O\7g\2\2OP\7n\2\2PQ\7u\2\2QR\7g\2\2R\20\3\2\2\2ST\7y\2\2TU\7j\2\2UV\7"+
-		"k\2\2VW\7n\2\2WX\7g\2\2X\22\3\2\2\2YZ\7h\2\2Z[\7w\2\2[\\\7p\2\2\\]\7e"+
-		"\2\2]^\7v\2\2^_\7k\2\2_`\7q\2\2`a\7p\2\2a\24\3\2\2\2bc\7x\2\2cd\7c\2\2"+
-		"de\7t\2\2e\26\3\2\2\2fg\7r\2\2gh\7t\2\2hi\7k\2\2ij\7p\2\2jk\7v\2\2k\30"+
-		"\3\2\2\2lp\t\2\2\2mo\t\3\2\2nm\3\2\2\2or\3\2\2\2pn\3\2\2\2pq\3\2\2\2q"+
-		"u\3\2\2\2rp\3\2\2\2su\7\62\2\2tl\3\2\2\2ts\3\2\2\2u\32\3\2\2\2vw\7v\2"+
-		"\2wx\7t\2\2xy\7w\2\2y\u0080\7g\2\2z{\7h\2\2{|\7c\2\2|}\7n\2\2}~\7u\2\2"+
-		"~\u0080\7g\2\2\177v\3\2\2\2\177z\3\2\2\2\u0080\34\3\2\2\2\u0081\u0082"+
-		"\7p\2\2\u0082\u0083\7w\2\2\u0083\u0084\7n\2\2\u0084\u0085\7n\2\2\u0085"+
-		"\36\3\2\2\2\u0086\u0087\7,\2\2\u0087 \3\2\2\2\u0088\u0089\7\61\2\2\u0089"+
-		"\"\3\2\2\2\u008a\u008b\7-\2\2\u008b$\3\2\2\2\u008c\u008d\7/\2\2\u008d"+
-		"&\3\2\2\2\u008e\u008f\7\'\2\2\u008f(\3\2\2\2\u0090\u0091\7@\2\2\u0091"+
-		"*\3\2\2\2\u0092\u0093\7>\2\2\u0093,\3\2\2\2\u0094\u0095\7@\2\2\u0095\u0096"+
-		"\7?\2\2\u0096.\3\2\2\2\u0097\u0098\7>\2\2\u0098\u0099\7?\2\2\u0099\60"+
-		"\3\2\2\2\u009a\u009b\7?\2\2\u009b\u009c\7?\2\2\u009c\62\3\2\2\2\u009d"+
-		"\u009e\7=\2\2\u009e\64\3\2\2\2\u009f\u00a0\7?\2\2\u00a0\66\3\2\2\2\u00a1"+
-		"\u00a5\t\4\2\2\u00a2\u00a4\t\5\2\2\u00a3\u00a2\3\2\2\2\u00a4\u00a7\3\2"+
-		"\2\2\u00a5\u00a3\3\2\2\2\u00a5\u00a6\3\2\2\2\u00a68\3\2\2\2\u00a7\u00a5"+
-		"\3\2\2\2\u00a8\u00aa\7\17\2\2\u00a9\u00a8\3\2\2\2\u00a9\u00aa\3\2\2\2"+
-		"\u00aa\u00ab\3\2\2\2\u00ab\u00ac\7\f\2\2\u00ac\u00ad\3\2\2\2\u00ad\u00ae"+
-		"\b\35\2\2\u00ae:\3\2\2\2\u00af\u00b0\7\61\2\2\u00b0\u00b1\7\61\2\2\u00b1"+
-		"\u00b5\3\2\2\2\u00b2\u00b4\n\6\2\2\u00b3\u00b2\3\2\2\2\u00b4\u00b7\3\2"+
-		"\2\2\u00b5\u00b3\3\2\2\2\u00b5\u00b6\3\2\2\2\u00b6\u00b8\3\2\2\2\u00b7"+
-		"\u00b5\3\2\2\2\u00b8\u00b9\b\36\2\2\u00b9<\3\2\2\2\u00ba\u00bc\t\7\2\2"+
-		"\u00bb\u00ba\3\2\2\2\u00bc\u00bd\3\2\2\2\u00bd\u00bb\3\2\2\2\u00bd\u00be"+
-		"\3\2\2\2\u00be\u00bf\3\2\2\2\u00bf\u00c0\b\37\2\2\u00c0>\3\2\2\2\u00c1"+
-		"\u00c2\7\61\2\2\u00c2\u00c3\7,\2\2\u00c3\u00c7\3\2\2\2\u00c4\u00c6\13"+
-		"\2\2\2\u00c5\u00c4\3\2\2\2\u00c6\u00c9\3\2\2\2\u00c7\u00c8\3\2\2\2\u00c7"+
-		"\u00c5\3\2\2\2\u00c8\u00ca\3\2\2\2\u00c9\u00c7\3\2\2\2\u00ca\u00cb\7,"+
-		"\2\2\u00cb\u00cc\7\61\2\2\u00cc\u00cd\3\2\2\2\u00cd\u00ce\b \2\2\u00ce"+
-		"@\3\2\2\2\13\2pt\177\u00a5\u00a9\u00b5\u00bd\u00c7\3\b\2\2";
+		"\4\32\t\32\4\33\t\33\4\34\t\34\4\35\t\35\4\36\t\36\4\37\t\37\4 \t \4!"+
+		"\t!\4\"\t\"\4#\t#\4$\t$\4%\t%\4&\t&\4\'\t\'\4(\t(\4)\t)\3\2\3\2\3\3\3"+
+		"\3\3\4\3\4\3\5\3\5\3\6\3\6\3\7\3\7\3\7\3\b\3\b\3\b\3\t\3\t\3\n\3\n\3\13"+
+		"\3\13\3\f\3\f\3\r\3\r\3\r\3\16\3\16\3\16\3\16\3\16\3\17\3\17\3\17\3\17"+
+		"\3\17\3\17\3\20\3\20\3\20\3\20\3\20\3\20\3\20\3\20\3\20\3\21\3\21\3\21"+
+		"\3\21\3\22\3\22\3\22\3\22\3\22\3\22\3\23\3\23\7\23\u008f\n\23\f\23\16"+
+		"\23\u0092\13\23\3\23\5\23\u0095\n\23\3\24\6\24\u0098\n\24\r\24\16\24\u0099"+
+		"\3\24\3\24\6\24\u009e\n\24\r\24\16\24\u009f\3\24\5\24\u00a3\n\24\3\24"+
+		"\6\24\u00a6\n\24\r\24\16\24\u00a7\3\24\5\24\u00ab\n\24\3\25\3\25\5\25"+
+		"\u00af\n\25\3\25\6\25\u00b2\n\25\r\25\16\25\u00b3\3\26\3\26\3\26\3\26"+
+		"\3\26\3\26\3\26\3\26\3\26\5\26\u00bf\n\26\3\27\3\27\3\27\3\27\3\27\3\30"+
+		"\3\30\3\30\3\30\7\30\u00ca\n\30\f\30\16\30\u00cd\13\30\3\30\3\30\3\31"+
+		"\3\31\3\32\3\32\3\33\3\33\3\34\3\34\3\35\3\35\3\36\3\36\3\37\3\37\3 \3"+
+		" \3 \3!\3!\3!\3\"\3\"\3\"\3#\3#\3$\3$\3%\3%\7%\u00ee\n%\f%\16%\u00f1\13"+
+		"%\3&\5&\u00f4\n&\3&\3&\3&\3&\3\'\3\'\3\'\3\'\7\'\u00fe\n\'\f\'\16\'\u0101"+
+		"\13\'\3\'\3\'\3(\6(\u0106\n(\r(\16(\u0107\3(\3(\3)\3)\3)\3)\7)\u0110\n"+
+		")\f)\16)\u0113\13)\3)\3)\3)\3)\3)\3\u0111\2*\3\3\5\4\7\5\t\6\13\7\r\b"+
+		"\17\t\21\n\23\13\25\f\27\r\31\16\33\17\35\20\37\21!\22#\23%\24\'\25)\2"+
+		"+\26-\27/\30\61\31\63\32\65\33\67\349\35;\36=\37? A!C\"E#G$I%K&M\'O(Q"+
+		")\3\2\13\3\2\63;\3\2\62;\4\2GGgg\4\2--//\6\2\f\f\17\17$$^^\5\2C\\aac|"+
+		"\6\2\62;C\\aac|\4\2\f\f\17\17\4\2\13\13\"\"\2\u0128\2\3\3\2\2\2\2\5\3"+
+		"\2\2\2\2\7\3\2\2\2\2\t\3\2\2\2\2\13\3\2\2\2\2\r\3\2\2\2\2\17\3\2\2\2\2"+
+		"\21\3\2\2\2\2\23\3\2\2\2\2\25\3\2\2\2\2\27\3\2\2\2\2\31\3\2\2\2\2\33\3"+
+		"\2\2\2\2\35\3\2\2\2\2\37\3\2\2\2\2!\3\2\2\2\2#\3\2\2\2\2%\3\2\2\2\2\'"+
+		"\3\2\2\2\2+\3\2\2\2\2-\3\2\2\2\2/\3\2\2\2\2\61\3\2\2\2\2\63\3\2\2\2\2"+
+		"\65\3\2\2\2\2\67\3\2\2\2\29\3\2\2\2\2;\3\2\2\2\2=\3\2\2\2\2?\3\2\2\2\2"+
+		"A\3\2\2\2\2C\3\2\2\2\2E\3\2\2\2\2G\3\2\2\2\2I\3\2\2\2\2K\3\2\2\2\2M\3"+
+		"\2\2\2\2O\3\2\2\2\2Q\3\2\2\2\3S\3\2\2\2\5U\3\2\2\2\7W\3\2\2\2\tY\3\2\2"+
+		"\2\13[\3\2\2\2\r]\3\2\2\2\17`\3\2\2\2\21c\3\2\2\2\23e\3\2\2\2\25g\3\2"+
+		"\2\2\27i\3\2\2\2\31k\3\2\2\2\33n\3\2\2\2\35s\3\2\2\2\37y\3\2\2\2!\u0082"+
+		"\3\2\2\2#\u0086\3\2\2\2%\u0094\3\2\2\2\'\u00aa\3\2\2\2)\u00ac\3\2\2\2"+
+		"+\u00be\3\2\2\2-\u00c0\3\2\2\2/\u00c5\3\2\2\2\61\u00d0\3\2\2\2\63\u00d2"+
+		"\3\2\2\2\65\u00d4\3\2\2\2\67\u00d6\3\2\2\29\u00d8\3\2\2\2;\u00da\3\2\2"+
+		"\2=\u00dc\3\2\2\2?\u00de\3\2\2\2A\u00e1\3\2\2\2C\u00e4\3\2\2\2E\u00e7"+
+		"\3\2\2\2G\u00e9\3\2\2\2I\u00eb\3\2\2\2K\u00f3\3\2\2\2M\u00f9\3\2\2\2O"+
+		"\u0105\3\2\2\2Q\u010b\3\2\2\2ST\7*\2\2T\4\3\2\2\2UV\7+\2\2V\6\3\2\2\2"+
+		"WX\7\60\2\2X\b\3\2\2\2YZ\7]\2\2Z\n\3\2\2\2[\\\7_\2\2\\\f\3\2\2\2]^\7]"+
+		"\2\2^_\7~\2\2_\16\3\2\2\2`a\7~\2\2ab\7_\2\2b\20\3\2\2\2cd\7}\2\2d\22\3"+
+		"\2\2\2ef\7.\2\2f\24\3\2\2\2gh\7\177\2\2h\26\3\2\2\2ij\7<\2\2j\30\3\2\2"+
+		"\2kl\7k\2\2lm\7h\2\2m\32\3\2\2\2no\7g\2\2op\7n\2\2pq\7u\2\2qr\7g\2\2r"+
+		"\34\3\2\2\2st\7y\2\2tu\7j\2\2uv\7k\2\2vw\7n\2\2wx\7g\2\2x\36\3\2\2\2y"+
+		"z\7h\2\2z{\7w\2\2{|\7p\2\2|}\7e\2\2}~\7v\2\2~\177\7k\2\2\177\u0080\7q"+
+		"\2\2\u0080\u0081\7p\2\2\u0081 \3\2\2\2\u0082\u0083\7x\2\2\u0083\u0084"+
+		"\7c\2\2\u0084\u0085\7t\2\2\u0085\"\3\2\2\2\u0086\u0087\7r\2\2\u0087\u0088"+
+		"\7t\2\2\u0088\u0089\7k\2\2\u0089\u008a\7p\2\2\u008a\u008b\7v\2\2\u008b"+
+		"$\3\2\2\2\u008c\u0090\t\2\2\2\u008d\u008f\t\3\2\2\u008e\u008d\3\2\2\2"+
+		"\u008f\u0092\3\2\2\2\u0090\u008e\3\2\2\2\u0090\u0091\3\2\2\2\u0091\u0095"+
+		"\3\2\2\2\u0092\u0090\3\2\2\2\u0093\u0095\7\62\2\2\u0094\u008c\3\2\2\2"+
+		"\u0094\u0093\3\2\2\2\u0095&\3\2\2\2\u0096\u0098\t\3\2\2\u0097\u0096\3"+
+		"\2\2\2\u0098\u0099\3\2\2\2\u0099\u0097\3\2\2\2\u0099\u009a\3\2\2\2\u009a"+
+		"\u009b\3\2\2\2\u009b\u009d\7\60\2\2\u009c\u009e\t\3\2\2\u009d\u009c\3"+
+		"\2\2\2\u009e\u009f\3\2\2\2\u009f\u009d\3\2\2\2\u009f\u00a0\3\2\2\2\u00a0"+
+		"\u00a2\3\2\2\2\u00a1\u00a3\5)\25\2\u00a2\u00a1\3\2\2\2\u00a2\u00a3\3\2"+
+		"\2\2\u00a3\u00ab\3\2\2\2\u00a4\u00a6\t\3\2\2\u00a5\u00a4\3\2\2\2\u00a6"+
+		"\u00a7\3\2\2\2\u00a7\u00a5\3\2\2\2\u00a7\u00a8\3\2\2\2\u00a8\u00a9\3\2"+
+		"\2\2\u00a9\u00ab\5)\25\2\u00aa\u0097\3\2\2\2\u00aa\u00a5\3\2\2\2\u00ab"+
+		"(\3\2\2\2\u00ac\u00ae\t\4\2\2\u00ad\u00af\t\5\2\2\u00ae\u00ad\3\2\2\2"+
+		"\u00ae\u00af\3\2\2\2\u00af\u00b1\3\2\2\2\u00b0\u00b2\t\3\2\2\u00b1\u00b0"+
+		"\3\2\2\2\u00b2\u00b3\3\2\2\2\u00b3\u00b1\3\2\2\2\u00b3\u00b4\3\2\2\2\u00b4"+
+		"*\3\2\2\2\u00b5\u00b6\7v\2\2\u00b6\u00b7\7t\2\2\u00b7\u00b8\7w\2\2\u00b8"+
+		"\u00bf\7g\2\2\u00b9\u00ba\7h\2\2\u00ba\u00bb\7c\2\2\u00bb\u00bc\7n\2\2"+
+		"\u00bc\u00bd\7u\2\2\u00bd\u00bf\7g\2\2\u00be\u00b5\3\2\2\2\u00be\u00b9"+
+		"\3\2\2\2\u00bf,\3\2\2\2\u00c0\u00c1\7p\2\2\u00c1\u00c2\7w\2\2\u00c2\u00c3"+
+		"\7n\2\2\u00c3\u00c4\7n\2\2\u00c4.\3\2\2\2\u00c5\u00cb\7$\2\2\u00c6\u00c7"+
+		"\7^\2\2\u00c7\u00ca\13\2\2\2\u00c8\u00ca\n\6\2\2\u00c9\u00c6\3\2\2\2\u00c9"+
+		"\u00c8\3\2\2\2\u00ca\u00cd\3\2\2\2\u00cb\u00c9\3\2\2\2\u00cb\u00cc\3\2"+
+		"\2\2\u00cc\u00ce\3\2\2\2\u00cd\u00cb\3\2\2\2\u00ce\u00cf\7$\2\2\u00cf"+
+		"\60\3\2\2\2\u00d0\u00d1\7,\2\2\u00d1\62\3\2\2\2\u00d2\u00d3\7\61\2\2\u00d3"+
+		"\64\3\2\2\2\u00d4\u00d5\7-\2\2\u00d5\66\3\2\2\2\u00d6\u00d7\7/\2\2\u00d7"+
+		"8\3\2\2\2\u00d8\u00d9\7\'\2\2\u00d9:\3\2\2\2\u00da\u00db\7@\2\2\u00db"+
+		"<\3\2\2\2\u00dc\u00dd\7>\2\2\u00dd>\3\2\2\2\u00de\u00df\7@\2\2\u00df\u00e0"+
+		"\7?\2\2\u00e0@\3\2\2\2\u00e1\u00e2\7>\2\2\u00e2\u00e3\7?\2\2\u00e3B\3"+
+		"\2\2\2\u00e4\u00e5\7?\2\2\u00e5\u00e6\7?\2\2\u00e6D\3\2\2\2\u00e7\u00e8"+
+		"\7=\2\2\u00e8F\3\2\2\2\u00e9\u00ea\7?\2\2\u00eaH\3\2\2\2\u00eb\u00ef\t"+
+		"\7\2\2\u00ec\u00ee\t\b\2\2\u00ed\u00ec\3\2\2\2\u00ee\u00f1\3\2\2\2\u00ef"+
+		"\u00ed\3\2\2\2\u00ef\u00f0\3\2\2\2\u00f0J\3\2\2\2\u00f1\u00ef\3\2\2\2"+
+		"\u00f2\u00f4\7\17\2\2\u00f3\u00f2\3\2\2\2\u00f3\u00f4\3\2\2\2\u00f4\u00f5"+
+		"\3\2\2\2\u00f5\u00f6\7\f\2\2\u00f6\u00f7\3\2\2\2\u00f7\u00f8\b&\2\2\u00f8"+
+		"L\3\2\2\2\u00f9\u00fa\7\61\2\2\u00fa\u00fb\7\61\2\2\u00fb\u00ff\3\2\2"+
+		"\2\u00fc\u00fe\n\t\2\2\u00fd\u00fc\3\2\2\2\u00fe\u0101\3\2\2\2\u00ff\u00fd"+
+		"\3\2\2\2\u00ff\u0100\3\2\2\2\u0100\u0102\3\2\2\2\u0101\u00ff\3\2\2\2\u0102"+
+		"\u0103\b\'\2\2\u0103N\3\2\2\2\u0104\u0106\t\n\2\2\u0105\u0104\3\2\2\2"+
+		"\u0106\u0107\3\2\2\2\u0107\u0105\3\2\2\2\u0107\u0108\3\2\2\2\u0108\u0109"+
+		"\3\2\2\2\u0109\u010a\b(\2\2\u010aP\3\2\2\2\u010b\u010c\7\61\2\2\u010c"+
+		"\u010d\7,\2\2\u010d\u0111\3\2\2\2\u010e\u0110\13\2\2\2\u010f\u010e\3\2"+
+		"\2\2\u0110\u0113\3\2\2\2\u0111\u0112\3\2\2\2\u0111\u010f\3\2\2\2\u0112"+
+		"\u0114\3\2\2\2\u0113\u0111\3\2\2\2\u0114\u0115\7,\2\2\u0115\u0116\7\61"+
+		"\2\2\u0116\u0117\3\2\2\2\u0117\u0118\b)\2\2\u0118R\3\2\2\2\24\2\u0090"+
+		"\u0094\u0099\u009f\u00a2\u00a7\u00aa\u00ae\u00b3\u00be\u00c9\u00cb\u00ef"+
+		"\u00f3\u00ff\u0107\u0111\3\b\2\2";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
@@ -17,34 +17,37 @@ public class FeatherweightJavaScriptParser extends Parser {
 	protected static final PredictionContextCache _sharedContextCache =
 		new PredictionContextCache();
 	public static final int
-		T__0=1, T__1=2, T__2=3, T__3=4, T__4=5, IF=6, ELSE=7, WHILE=8, FUNCTION=9, 
-		VAR=10, PRINT=11, INT=12, BOOL=13, NULL=14, MUL=15, DIV=16, ADD=17, SUB=18, 
-		MOD=19, GT=20, LT=21, GE=22, LE=23, EQ=24, SEPARATOR=25, ASSIGN=26, ID=27, 
-		NEWLINE=28, LINE_COMMENT=29, WS=30, BLOCK_COMMENT=31;
+		T__0=1, T__1=2, T__2=3, T__3=4, T__4=5, T__5=6, T__6=7, T__7=8, T__8=9, 
+		T__9=10, T__10=11, IF=12, ELSE=13, WHILE=14, FUNCTION=15, VAR=16, PRINT=17, 
+		INT=18, DOUBLE=19, BOOL=20, NULL=21, STRING=22, MUL=23, DIV=24, ADD=25, 
+		SUB=26, MOD=27, GT=28, LT=29, GE=30, LE=31, EQ=32, SEPARATOR=33, ASSIGN=34, 
+		ID=35, NEWLINE=36, LINE_COMMENT=37, WS=38, BLOCK_COMMENT=39;
 	public static final int
-		RULE_prog = 0, RULE_stat = 1, RULE_expr = 2, RULE_params = 3, RULE_args = 4, 
-		RULE_block = 5;
+		RULE_prog = 0, RULE_stat = 1, RULE_expr = 2, RULE_property = 3, RULE_params = 4, 
+		RULE_args = 5, RULE_block = 6;
 	private static String[] makeRuleNames() {
 		return new String[] {
-			"prog", "stat", "expr", "params", "args", "block"
+			"prog", "stat", "expr", "property", "params", "args", "block"
 		};
 	}
 	public static final String[] ruleNames = makeRuleNames();
 
 	private static String[] makeLiteralNames() {
 		return new String[] {
-			null, "'('", "')'", "','", "'{'", "'}'", "'if'", "'else'", "'while'", 
-			"'function'", "'var'", "'print'", null, null, "'null'", "'*'", "'/'", 
-			"'+'", "'-'", "'%'", "'>'", "'<'", "'>='", "'<='", "'=='", "';'", "'='"
+			null, "'('", "')'", "'.'", "'['", "']'", "'[|'", "'|]'", "'{'", "','", 
+			"'}'", "':'", "'if'", "'else'", "'while'", "'function'", "'var'", "'print'", 
+			null, null, null, "'null'", null, "'*'", "'/'", "'+'", "'-'", "'%'", 
+			"'>'", "'<'", "'>='", "'<='", "'=='", "';'", "'='"
 		};
 	}
 	private static final String[] _LITERAL_NAMES = makeLiteralNames();
 	private static String[] makeSymbolicNames() {
 		return new String[] {
-			null, null, null, null, null, null, "IF", "ELSE", "WHILE", "FUNCTION", 
-			"VAR", "PRINT", "INT", "BOOL", "NULL", "MUL", "DIV", "ADD", "SUB", "MOD", 
-			"GT", "LT", "GE", "LE", "EQ", "SEPARATOR", "ASSIGN", "ID", "NEWLINE", 
-			"LINE_COMMENT", "WS", "BLOCK_COMMENT"
+			null, null, null, null, null, null, null, null, null, null, null, null, 
+			"IF", "ELSE", "WHILE", "FUNCTION", "VAR", "PRINT", "INT", "DOUBLE", "BOOL", 
+			"NULL", "STRING", "MUL", "DIV", "ADD", "SUB", "MOD", "GT", "LT", "GE", 
+			"LE", "EQ", "SEPARATOR", "ASSIGN", "ID", "NEWLINE", "LINE_COMMENT", "WS", 
+			"BLOCK_COMMENT"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -123,20 +126,20 @@ public class FeatherweightJavaScriptParser extends Parser {
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(13); 
+			setState(15); 
 			_errHandler.sync(this);
 			_la = _input.LA(1);
 			do {
 				{
 				{
-				setState(12);
+				setState(14);
 				stat();
 				}
 				}
-				setState(15); 
+				setState(17); 
 				_errHandler.sync(this);
 				_la = _input.LA(1);
-			} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__0) | (1L << IF) | (1L << WHILE) | (1L << FUNCTION) | (1L << VAR) | (1L << PRINT) | (1L << INT) | (1L << BOOL) | (1L << NULL) | (1L << SEPARATOR) | (1L << ID))) != 0) );
+			} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__0) | (1L << T__3) | (1L << T__5) | (1L << T__7) | (1L << IF) | (1L << WHILE) | (1L << FUNCTION) | (1L << VAR) | (1L << PRINT) | (1L << INT) | (1L << DOUBLE) | (1L << BOOL) | (1L << NULL) | (1L << STRING) | (1L << SEPARATOR) | (1L << ID))) != 0) );
 			}
 		}
 		catch (RecognitionException re) {
@@ -249,16 +252,16 @@ public class FeatherweightJavaScriptParser extends Parser {
 		StatContext _localctx = new StatContext(_ctx, getState());
 		enterRule(_localctx, 2, RULE_stat);
 		try {
-			setState(47);
+			setState(49);
 			_errHandler.sync(this);
 			switch ( getInterpreter().adaptivePredict(_input,1,_ctx) ) {
 			case 1:
 				_localctx = new BareExprContext(_localctx);
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(17);
+				setState(19);
 				expr(0);
-				setState(18);
+				setState(20);
 				match(SEPARATOR);
 				}
 				break;
@@ -266,19 +269,19 @@ public class FeatherweightJavaScriptParser extends Parser {
 				_localctx = new IfThenElseContext(_localctx);
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(20);
+				setState(22);
 				match(IF);
-				setState(21);
+				setState(23);
 				match(T__0);
-				setState(22);
+				setState(24);
 				expr(0);
-				setState(23);
+				setState(25);
 				match(T__1);
-				setState(24);
+				setState(26);
 				block();
-				setState(25);
+				setState(27);
 				match(ELSE);
-				setState(26);
+				setState(28);
 				block();
 				}
 				break;
@@ -286,15 +289,15 @@ public class FeatherweightJavaScriptParser extends Parser {
 				_localctx = new IfThenContext(_localctx);
 				enterOuterAlt(_localctx, 3);
 				{
-				setState(28);
+				setState(30);
 				match(IF);
-				setState(29);
+				setState(31);
 				match(T__0);
-				setState(30);
+				setState(32);
 				expr(0);
-				setState(31);
+				setState(33);
 				match(T__1);
-				setState(32);
+				setState(34);
 				block();
 				}
 				break;
@@ -302,15 +305,15 @@ public class FeatherweightJavaScriptParser extends Parser {
 				_localctx = new PrintContext(_localctx);
 				enterOuterAlt(_localctx, 4);
 				{
-				setState(34);
+				setState(36);
 				match(PRINT);
-				setState(35);
+				setState(37);
 				match(T__0);
-				setState(36);
+				setState(38);
 				expr(0);
-				setState(37);
+				setState(39);
 				match(T__1);
-				setState(38);
+				setState(40);
 				match(SEPARATOR);
 				}
 				break;
@@ -318,15 +321,15 @@ public class FeatherweightJavaScriptParser extends Parser {
 				_localctx = new WhileContext(_localctx);
 				enterOuterAlt(_localctx, 5);
 				{
-				setState(40);
+				setState(42);
 				match(WHILE);
-				setState(41);
+				setState(43);
 				match(T__0);
-				setState(42);
+				setState(44);
 				expr(0);
-				setState(43);
+				setState(45);
 				match(T__1);
-				setState(44);
+				setState(46);
 				block();
 				}
 				break;
@@ -334,7 +337,7 @@ public class FeatherweightJavaScriptParser extends Parser {
 				_localctx = new EmptyStmtContext(_localctx);
 				enterOuterAlt(_localctx, 6);
 				{
-				setState(46);
+				setState(48);
 				match(SEPARATOR);
 				}
 				break;
@@ -362,32 +365,25 @@ public class FeatherweightJavaScriptParser extends Parser {
 			super.copyFrom(ctx);
 		}
 	}
-	public static class ParensContext extends ExprContext {
-		public ExprContext expr() {
-			return getRuleContext(ExprContext.class,0);
+	public static class ListLitContext extends ExprContext {
+		public ArgsContext args() {
+			return getRuleContext(ArgsContext.class,0);
 		}
-		public ParensContext(ExprContext ctx) { copyFrom(ctx); }
+		public ListLitContext(ExprContext ctx) { copyFrom(ctx); }
 		@Override
 		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitParens(this);
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitListLit(this);
 			else return visitor.visitChildren(this);
 		}
 	}
-	public static class MulDivModContext extends ExprContext {
-		public Token op;
-		public List<ExprContext> expr() {
-			return getRuleContexts(ExprContext.class);
-		}
-		public ExprContext expr(int i) {
-			return getRuleContext(ExprContext.class,i);
+	public static class ParensContext extends ExprContext {
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
 		}
-		public TerminalNode MUL() { return getToken(FeatherweightJavaScriptParser.MUL, 0); }
-		public TerminalNode DIV() { return getToken(FeatherweightJavaScriptParser.DIV, 0); }
-		public TerminalNode MOD() { return getToken(FeatherweightJavaScriptParser.MOD, 0); }
-		public MulDivModContext(ExprContext ctx) { copyFrom(ctx); }
+		public ParensContext(ExprContext ctx) { copyFrom(ctx); }
 		@Override
 		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitMulDivMod(this);
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitParens(this);
 			else return visitor.visitChildren(this);
 		}
 	}
@@ -412,12 +408,12 @@ public class FeatherweightJavaScriptParser extends Parser {
 			else return visitor.visitChildren(this);
 		}
 	}
-	public static class NullContext extends ExprContext {
-		public TerminalNode NULL() { return getToken(FeatherweightJavaScriptParser.NULL, 0); }
-		public NullContext(ExprContext ctx) { copyFrom(ctx); }
+	public static class StringContext extends ExprContext {
+		public TerminalNode STRING() { return getToken(FeatherweightJavaScriptParser.STRING, 0); }
+		public StringContext(ExprContext ctx) { copyFrom(ctx); }
 		@Override
 		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitNull(this);
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitString(this);
 			else return visitor.visitChildren(this);
 		}
 	}
@@ -438,6 +434,126 @@ public class FeatherweightJavaScriptParser extends Parser {
 			else return visitor.visitChildren(this);
 		}
 	}
+	public static class DoubleContext extends ExprContext {
+		public TerminalNode DOUBLE() { return getToken(FeatherweightJavaScriptParser.DOUBLE, 0); }
+		public DoubleContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitDouble(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class IndexContext extends ExprContext {
+		public TerminalNode ID() { return getToken(FeatherweightJavaScriptParser.ID, 0); }
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public IndexContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitIndex(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class VarRefContext extends ExprContext {
+		public TerminalNode ID() { return getToken(FeatherweightJavaScriptParser.ID, 0); }
+		public VarRefContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitVarRef(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class IndexAssignContext extends ExprContext {
+		public TerminalNode ID() { return getToken(FeatherweightJavaScriptParser.ID, 0); }
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
+		}
+		public TerminalNode ASSIGN() { return getToken(FeatherweightJavaScriptParser.ASSIGN, 0); }
+		public IndexAssignContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitIndexAssign(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class VarAssignContext extends ExprContext {
+		public TerminalNode ID() { return getToken(FeatherweightJavaScriptParser.ID, 0); }
+		public TerminalNode ASSIGN() { return getToken(FeatherweightJavaScriptParser.ASSIGN, 0); }
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public VarAssignContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitVarAssign(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class ObjectLitContext extends ExprContext {
+		public List<PropertyContext> property() {
+			return getRuleContexts(PropertyContext.class);
+		}
+		public PropertyContext property(int i) {
+			return getRuleContext(PropertyContext.class,i);
+		}
+		public ObjectLitContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitObjectLit(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class IntContext extends ExprContext {
+		public TerminalNode INT() { return getToken(FeatherweightJavaScriptParser.INT, 0); }
+		public IntContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitInt(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class ArrayLitContext extends ExprContext {
+		public ArgsContext args() {
+			return getRuleContext(ArgsContext.class,0);
+		}
+		public ArrayLitContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitArrayLit(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class MulDivModContext extends ExprContext {
+		public Token op;
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
+		}
+		public TerminalNode MUL() { return getToken(FeatherweightJavaScriptParser.MUL, 0); }
+		public TerminalNode DIV() { return getToken(FeatherweightJavaScriptParser.DIV, 0); }
+		public TerminalNode MOD() { return getToken(FeatherweightJavaScriptParser.MOD, 0); }
+		public MulDivModContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitMulDivMod(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class NullContext extends ExprContext {
+		public TerminalNode NULL() { return getToken(FeatherweightJavaScriptParser.NULL, 0); }
+		public NullContext(ExprContext ctx) { copyFrom(ctx); }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitNull(this);
+			else return visitor.visitChildren(this);
+		}
+	}
 	public static class ComparisonContext extends ExprContext {
 		public Token op;
 		public List<ExprContext> expr() {
@@ -473,12 +589,15 @@ public class FeatherweightJavaScriptParser extends Parser {
 			else return visitor.visitChildren(this);
 		}
 	}
-	public static class VarRefContext extends ExprContext {
+	public static class PropContext extends ExprContext {
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
 		public TerminalNode ID() { return getToken(FeatherweightJavaScriptParser.ID, 0); }
-		public VarRefContext(ExprContext ctx) { copyFrom(ctx); }
+		public PropContext(ExprContext ctx) { copyFrom(ctx); }
 		@Override
 		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitVarRef(this);
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitProp(this);
 			else return visitor.visitChildren(this);
 		}
 	}
@@ -496,25 +615,19 @@ public class FeatherweightJavaScriptParser extends Parser {
 			else return visitor.visitChildren(this);
 		}
 	}
-	public static class IntContext extends ExprContext {
-		public TerminalNode INT() { return getToken(FeatherweightJavaScriptParser.INT, 0); }
-		public IntContext(ExprContext ctx) { copyFrom(ctx); }
-		@Override
-		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitInt(this);
-			else return visitor.visitChildren(this);
+	public static class PropAssignContext extends ExprContext {
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
 		}
-	}
-	public static class VarAssignContext extends ExprContext {
 		public TerminalNode ID() { return getToken(FeatherweightJavaScriptParser.ID, 0); }
 		public TerminalNode ASSIGN() { return getToken(FeatherweightJavaScriptParser.ASSIGN, 0); }
-		public ExprContext expr() {
-			return getRuleContext(ExprContext.class,0);
-		}
-		public VarAssignContext(ExprContext ctx) { copyFrom(ctx); }
+		public PropAssignContext(ExprContext ctx) { copyFrom(ctx); }
 		@Override
 		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
-			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitVarAssign(this);
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitPropAssign(this);
 			else return visitor.visitChildren(this);
 		}
 	}
@@ -535,155 +648,286 @@ public class FeatherweightJavaScriptParser extends Parser {
 			int _alt;
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(78);
+			setState(116);
 			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,4,_ctx) ) {
+			switch ( getInterpreter().adaptivePredict(_input,8,_ctx) ) {
 			case 1:
 				{
-				_localctx = new IntContext(_localctx);
+				_localctx = new ParensContext(_localctx);
 				_ctx = _localctx;
 				_prevctx = _localctx;
 
-				setState(50);
-				match(INT);
-				}
-				break;
-			case 2:
-				{
-				_localctx = new BoolContext(_localctx);
-				_ctx = _localctx;
-				_prevctx = _localctx;
-				setState(51);
-				match(BOOL);
-				}
-				break;
-			case 3:
-				{
-				_localctx = new NullContext(_localctx);
-				_ctx = _localctx;
-				_prevctx = _localctx;
 				setState(52);
-				match(NULL);
-				}
-				break;
-			case 4:
-				{
-				_localctx = new ParensContext(_localctx);
-				_ctx = _localctx;
-				_prevctx = _localctx;
-				setState(53);
 				match(T__0);
-				setState(54);
+				setState(53);
 				expr(0);
-				setState(55);
+				setState(54);
 				match(T__1);
 				}
 				break;
-			case 5:
+			case 2:
 				{
 				_localctx = new FuncDeclContext(_localctx);
 				_ctx = _localctx;
 				_prevctx = _localctx;
-				setState(57);
+				setState(56);
 				match(FUNCTION);
-				setState(58);
+				setState(57);
 				match(T__0);
-				setState(60);
+				setState(59);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 				if (_la==ID) {
 					{
-					setState(59);
+					setState(58);
 					params();
 					}
 				}
 
-				setState(62);
+				setState(61);
 				match(T__1);
-				setState(63);
+				setState(62);
 				block();
 				}
 				break;
-			case 6:
+			case 3:
 				{
 				_localctx = new FuncAppContext(_localctx);
 				_ctx = _localctx;
 				_prevctx = _localctx;
-				setState(64);
+				setState(63);
 				match(ID);
-				setState(65);
+				setState(64);
 				match(T__0);
-				setState(67);
+				setState(66);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
-				if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__0) | (1L << FUNCTION) | (1L << VAR) | (1L << INT) | (1L << BOOL) | (1L << NULL) | (1L << ID))) != 0)) {
+				if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__0) | (1L << T__3) | (1L << T__5) | (1L << T__7) | (1L << FUNCTION) | (1L << VAR) | (1L << INT) | (1L << DOUBLE) | (1L << BOOL) | (1L << NULL) | (1L << STRING) | (1L << ID))) != 0)) {
 					{
-					setState(66);
+					setState(65);
 					args();
 					}
 				}
 
-				setState(69);
+				setState(68);
 				match(T__1);
 				}
 				break;
-			case 7:
+			case 4:
 				{
-				_localctx = new VarDeclContext(_localctx);
+				_localctx = new IndexAssignContext(_localctx);
 				_ctx = _localctx;
 				_prevctx = _localctx;
+				setState(69);
+				match(ID);
 				setState(70);
-				match(VAR);
+				match(T__3);
 				setState(71);
-				match(ID);
+				expr(0);
 				setState(72);
-				match(ASSIGN);
+				match(T__4);
 				setState(73);
-				expr(3);
+				match(ASSIGN);
+				setState(74);
+				expr(13);
 				}
 				break;
-			case 8:
+			case 5:
+				{
+				_localctx = new IndexContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(76);
+				match(ID);
+				setState(77);
+				match(T__3);
+				setState(78);
+				expr(0);
+				setState(79);
+				match(T__4);
+				}
+				break;
+			case 6:
+				{
+				_localctx = new VarDeclContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(81);
+				match(VAR);
+				setState(82);
+				match(ID);
+				setState(83);
+				match(ASSIGN);
+				setState(84);
+				expr(11);
+				}
+				break;
+			case 7:
 				{
 				_localctx = new VarRefContext(_localctx);
 				_ctx = _localctx;
 				_prevctx = _localctx;
-				setState(74);
+				setState(85);
 				match(ID);
 				}
 				break;
-			case 9:
+			case 8:
 				{
 				_localctx = new VarAssignContext(_localctx);
 				_ctx = _localctx;
 				_prevctx = _localctx;
-				setState(75);
+				setState(86);
 				match(ID);
-				setState(76);
+				setState(87);
 				match(ASSIGN);
-				setState(77);
-				expr(1);
+				setState(88);
+				expr(9);
+				}
+				break;
+			case 9:
+				{
+				_localctx = new ListLitContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(89);
+				match(T__3);
+				setState(91);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__0) | (1L << T__3) | (1L << T__5) | (1L << T__7) | (1L << FUNCTION) | (1L << VAR) | (1L << INT) | (1L << DOUBLE) | (1L << BOOL) | (1L << NULL) | (1L << STRING) | (1L << ID))) != 0)) {
+					{
+					setState(90);
+					args();
+					}
+				}
+
+				setState(93);
+				match(T__4);
+				}
+				break;
+			case 10:
+				{
+				_localctx = new ArrayLitContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(94);
+				match(T__5);
+				setState(96);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__0) | (1L << T__3) | (1L << T__5) | (1L << T__7) | (1L << FUNCTION) | (1L << VAR) | (1L << INT) | (1L << DOUBLE) | (1L << BOOL) | (1L << NULL) | (1L << STRING) | (1L << ID))) != 0)) {
+					{
+					setState(95);
+					args();
+					}
+				}
+
+				setState(98);
+				match(T__6);
+				}
+				break;
+			case 11:
+				{
+				_localctx = new ObjectLitContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(99);
+				match(T__7);
+				setState(108);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if (_la==ID) {
+					{
+					setState(100);
+					property();
+					setState(105);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+					while (_la==T__8) {
+						{
+						{
+						setState(101);
+						match(T__8);
+						setState(102);
+						property();
+						}
+						}
+						setState(107);
+						_errHandler.sync(this);
+						_la = _input.LA(1);
+					}
+					}
+				}
+
+				setState(110);
+				match(T__9);
+				}
+				break;
+			case 12:
+				{
+				_localctx = new IntContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(111);
+				match(INT);
+				}
+				break;
+			case 13:
+				{
+				_localctx = new DoubleContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(112);
+				match(DOUBLE);
+				}
+				break;
+			case 14:
+				{
+				_localctx = new BoolContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(113);
+				match(BOOL);
+				}
+				break;
+			case 15:
+				{
+				_localctx = new NullContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(114);
+				match(NULL);
+				}
+				break;
+			case 16:
+				{
+				_localctx = new StringContext(_localctx);
+				_ctx = _localctx;
+				_prevctx = _localctx;
+				setState(115);
+				match(STRING);
 				}
 				break;
 			}
 			_ctx.stop = _input.LT(-1);
-			setState(91);
+			setState(137);
 			_errHandler.sync(this);
-			_alt = getInterpreter().adaptivePredict(_input,6,_ctx);
+			_alt = getInterpreter().adaptivePredict(_input,10,_ctx);
 			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
 				if ( _alt==1 ) {
 					if ( _parseListeners!=null ) triggerExitRuleEvent();
 					_prevctx = _localctx;
 					{
-					setState(89);
+					setState(135);
 					_errHandler.sync(this);
-					switch ( getInterpreter().adaptivePredict(_input,5,_ctx) ) {
+					switch ( getInterpreter().adaptivePredict(_input,9,_ctx) ) {
 					case 1:
 						{
 						_localctx = new MulDivModContext(new ExprContext(_parentctx, _parentState));
 						pushNewRecursionContext(_localctx, _startState, RULE_expr);
-						setState(80);
-						if (!(precpred(_ctx, 12))) throw new FailedPredicateException(this, "precpred(_ctx, 12)");
-						setState(81);
+						setState(118);
+						if (!(precpred(_ctx, 20))) throw new FailedPredicateException(this, "precpred(_ctx, 20)");
+						setState(119);
 						((MulDivModContext)_localctx).op = _input.LT(1);
 						_la = _input.LA(1);
 						if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << MUL) | (1L << DIV) | (1L << MOD))) != 0)) ) {
@@ -694,17 +938,17 @@ public class FeatherweightJavaScriptParser extends Parser {
 							_errHandler.reportMatch(this);
 							consume();
 						}
-						setState(82);
-						expr(13);
+						setState(120);
+						expr(21);
 						}
 						break;
 					case 2:
 						{
 						_localctx = new AddSubContext(new ExprContext(_parentctx, _parentState));
 						pushNewRecursionContext(_localctx, _startState, RULE_expr);
-						setState(83);
-						if (!(precpred(_ctx, 11))) throw new FailedPredicateException(this, "precpred(_ctx, 11)");
-						setState(84);
+						setState(121);
+						if (!(precpred(_ctx, 18))) throw new FailedPredicateException(this, "precpred(_ctx, 18)");
+						setState(122);
 						((AddSubContext)_localctx).op = _input.LT(1);
 						_la = _input.LA(1);
 						if ( !(_la==ADD || _la==SUB) ) {
@@ -715,17 +959,17 @@ public class FeatherweightJavaScriptParser extends Parser {
 							_errHandler.reportMatch(this);
 							consume();
 						}
-						setState(85);
-						expr(12);
+						setState(123);
+						expr(19);
 						}
 						break;
 					case 3:
 						{
 						_localctx = new ComparisonContext(new ExprContext(_parentctx, _parentState));
 						pushNewRecursionContext(_localctx, _startState, RULE_expr);
-						setState(86);
-						if (!(precpred(_ctx, 10))) throw new FailedPredicateException(this, "precpred(_ctx, 10)");
-						setState(87);
+						setState(124);
+						if (!(precpred(_ctx, 17))) throw new FailedPredicateException(this, "precpred(_ctx, 17)");
+						setState(125);
 						((ComparisonContext)_localctx).op = _input.LT(1);
 						_la = _input.LA(1);
 						if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << GT) | (1L << LT) | (1L << GE) | (1L << LE) | (1L << EQ))) != 0)) ) {
@@ -736,16 +980,44 @@ public class FeatherweightJavaScriptParser extends Parser {
 							_errHandler.reportMatch(this);
 							consume();
 						}
-						setState(88);
-						expr(11);
+						setState(126);
+						expr(18);
+						}
+						break;
+					case 4:
+						{
+						_localctx = new PropAssignContext(new ExprContext(_parentctx, _parentState));
+						pushNewRecursionContext(_localctx, _startState, RULE_expr);
+						setState(127);
+						if (!(precpred(_ctx, 16))) throw new FailedPredicateException(this, "precpred(_ctx, 16)");
+						setState(128);
+						match(T__2);
+						setState(129);
+						match(ID);
+						setState(130);
+						match(ASSIGN);
+						setState(131);
+						expr(16);
+						}
+						break;
+					case 5:
+						{
+						_localctx = new PropContext(new ExprContext(_parentctx, _parentState));
+						pushNewRecursionContext(_localctx, _startState, RULE_expr);
+						setState(132);
+						if (!(precpred(_ctx, 21))) throw new FailedPredicateException(this, "precpred(_ctx, 21)");
+						setState(133);
+						match(T__2);
+						setState(134);
+						match(ID);
 						}
 						break;
 					}
 					} 
 				}
-				setState(93);
+				setState(139);
 				_errHandler.sync(this);
-				_alt = getInterpreter().adaptivePredict(_input,6,_ctx);
+				_alt = getInterpreter().adaptivePredict(_input,10,_ctx);
 			}
 			}
 		}
@@ -760,6 +1032,47 @@ public class FeatherweightJavaScriptParser extends Parser {
 		return _localctx;
 	}
 
+	public static class PropertyContext extends ParserRuleContext {
+		public TerminalNode ID() { return getToken(FeatherweightJavaScriptParser.ID, 0); }
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public PropertyContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_property; }
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof FeatherweightJavaScriptVisitor ) return ((FeatherweightJavaScriptVisitor<? extends T>)visitor).visitProperty(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final PropertyContext property() throws RecognitionException {
+		PropertyContext _localctx = new PropertyContext(_ctx, getState());
+		enterRule(_localctx, 6, RULE_property);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(140);
+			match(ID);
+			setState(141);
+			match(T__10);
+			setState(142);
+			expr(0);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
 	public static class ParamsContext extends ParserRuleContext {
 		public List<TerminalNode> ID() { return getTokens(FeatherweightJavaScriptParser.ID); }
 		public TerminalNode ID(int i) {
@@ -778,26 +1091,26 @@ public class FeatherweightJavaScriptParser extends Parser {
 
 	public final ParamsContext params() throws RecognitionException {
 		ParamsContext _localctx = new ParamsContext(_ctx, getState());
-		enterRule(_localctx, 6, RULE_params);
+		enterRule(_localctx, 8, RULE_params);
 		int _la;
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(94);
+			setState(144);
 			match(ID);
-			setState(99);
+			setState(149);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
-			while (_la==T__2) {
+			while (_la==T__8) {
 				{
 				{
-				setState(95);
-				match(T__2);
-				setState(96);
+				setState(145);
+				match(T__8);
+				setState(146);
 				match(ID);
 				}
 				}
-				setState(101);
+				setState(151);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 			}
@@ -834,26 +1147,26 @@ public class FeatherweightJavaScriptParser extends Parser {
 
 	public final ArgsContext args() throws RecognitionException {
 		ArgsContext _localctx = new ArgsContext(_ctx, getState());
-		enterRule(_localctx, 8, RULE_args);
+		enterRule(_localctx, 10, RULE_args);
 		int _la;
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(102);
+			setState(152);
 			expr(0);
-			setState(107);
+			setState(157);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
-			while (_la==T__2) {
+			while (_la==T__8) {
 				{
 				{
-				setState(103);
-				match(T__2);
-				setState(104);
+				setState(153);
+				match(T__8);
+				setState(154);
 				expr(0);
 				}
 				}
-				setState(109);
+				setState(159);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 			}
@@ -912,69 +1225,57 @@ public class FeatherweightJavaScriptParser extends Parser {
 
 	public final BlockContext block() throws RecognitionException {
 		BlockContext _localctx = new BlockContext(_ctx, getState());
-		enterRule(_localctx, 10, RULE_block);
+		enterRule(_localctx, 12, RULE_block);
 		int _la;
 		try {
 			int _alt;
-			setState(122);
+			setState(172);
 			_errHandler.sync(this);
-			switch (_input.LA(1)) {
-			case T__3:
+			switch ( getInterpreter().adaptivePredict(_input,15,_ctx) ) {
+			case 1:
 				_localctx = new FullBlockContext(_localctx);
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(110);
-				match(T__3);
-				setState(114);
+				setState(160);
+				match(T__7);
+				setState(164);
 				_errHandler.sync(this);
-				_alt = getInterpreter().adaptivePredict(_input,9,_ctx);
+				_alt = getInterpreter().adaptivePredict(_input,13,_ctx);
 				while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
 					if ( _alt==1 ) {
 						{
 						{
-						setState(111);
+						setState(161);
 						stat();
 						}
 						} 
 					}
-					setState(116);
+					setState(166);
 					_errHandler.sync(this);
-					_alt = getInterpreter().adaptivePredict(_input,9,_ctx);
+					_alt = getInterpreter().adaptivePredict(_input,13,_ctx);
 				}
-				setState(118);
+				setState(168);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
-				if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__0) | (1L << FUNCTION) | (1L << VAR) | (1L << INT) | (1L << BOOL) | (1L << NULL) | (1L << ID))) != 0)) {
+				if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__0) | (1L << T__3) | (1L << T__5) | (1L << T__7) | (1L << FUNCTION) | (1L << VAR) | (1L << INT) | (1L << DOUBLE) | (1L << BOOL) | (1L << NULL) | (1L << STRING) | (1L << ID))) != 0)) {
 					{
-					setState(117);
+					setState(167);
 					expr(0);
 					}
 				}
 
-				setState(120);
-				match(T__4);
+				setState(170);
+				match(T__9);
 				}
 				break;
-			case T__0:
-			case IF:
-			case WHILE:
-			case FUNCTION:
-			case VAR:
-			case PRINT:
-			case INT:
-			case BOOL:
-			case NULL:
-			case SEPARATOR:
-			case ID:
+			case 2:
 				_localctx = new SimpBlockContext(_localctx);
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(121);
+				setState(171);
 				stat();
 				}
 				break;
-			default:
-				throw new NoViableAltException(this);
 			}
 		}
 		catch (RecognitionException re) {
@@ -998,49 +1299,74 @@ public class FeatherweightJavaScriptParser extends Parser {
 	private boolean expr_sempred(ExprContext _localctx, int predIndex) {
 		switch (predIndex) {
 		case 0:
-			return precpred(_ctx, 12);
+			return precpred(_ctx, 20);
 		case 1:
-			return precpred(_ctx, 11);
+			return precpred(_ctx, 18);
 		case 2:
-			return precpred(_ctx, 10);
+			return precpred(_ctx, 17);
+		case 3:
+			return precpred(_ctx, 16);
+		case 4:
+			return precpred(_ctx, 21);
 		}
 		return true;
 	}
 
 	public static final String _serializedATN =
-		"\3\u608b\ua72a\u8133\ub9ed\u417c\u3be7\u7786\u5964\3!\177\4\2\t\2\4\3"+
-		"\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\3\2\6\2\20\n\2\r\2\16\2\21\3\3\3"+
-		"\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3"+
-		"\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\5\3\62\n\3\3\4\3\4\3\4\3"+
-		"\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\5\4?\n\4\3\4\3\4\3\4\3\4\3\4\5\4F\n\4\3"+
-		"\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\5\4Q\n\4\3\4\3\4\3\4\3\4\3\4\3\4\3"+
-		"\4\3\4\3\4\7\4\\\n\4\f\4\16\4_\13\4\3\5\3\5\3\5\7\5d\n\5\f\5\16\5g\13"+
-		"\5\3\6\3\6\3\6\7\6l\n\6\f\6\16\6o\13\6\3\7\3\7\7\7s\n\7\f\7\16\7v\13\7"+
-		"\3\7\5\7y\n\7\3\7\3\7\5\7}\n\7\3\7\2\3\6\b\2\4\6\b\n\f\2\5\4\2\21\22\25"+
-		"\25\3\2\23\24\3\2\26\32\2\u0090\2\17\3\2\2\2\4\61\3\2\2\2\6P\3\2\2\2\b"+
-		"`\3\2\2\2\nh\3\2\2\2\f|\3\2\2\2\16\20\5\4\3\2\17\16\3\2\2\2\20\21\3\2"+
-		"\2\2\21\17\3\2\2\2\21\22\3\2\2\2\22\3\3\2\2\2\23\24\5\6\4\2\24\25\7\33"+
-		"\2\2\25\62\3\2\2\2\26\27\7\b\2\2\27\30\7\3\2\2\30\31\5\6\4\2\31\32\7\4"+
-		"\2\2\32\33\5\f\7\2\33\34\7\t\2\2\34\35\5\f\7\2\35\62\3\2\2\2\36\37\7\b"+
-		"\2\2\37 \7\3\2\2 !\5\6\4\2!\"\7\4\2\2\"#\5\f\7\2#\62\3\2\2\2$%\7\r\2\2"+
-		"%&\7\3\2\2&\'\5\6\4\2\'(\7\4\2\2()\7\33\2\2)\62\3\2\2\2*+\7\n\2\2+,\7"+
-		"\3\2\2,-\5\6\4\2-.\7\4\2\2./\5\f\7\2/\62\3\2\2\2\60\62\7\33\2\2\61\23"+
-		"\3\2\2\2\61\26\3\2\2\2\61\36\3\2\2\2\61$\3\2\2\2\61*\3\2\2\2\61\60\3\2"+
-		"\2\2\62\5\3\2\2\2\63\64\b\4\1\2\64Q\7\16\2\2\65Q\7\17\2\2\66Q\7\20\2\2"+
-		"\678\7\3\2\289\5\6\4\29:\7\4\2\2:Q\3\2\2\2;<\7\13\2\2<>\7\3\2\2=?\5\b"+
-		"\5\2>=\3\2\2\2>?\3\2\2\2?@\3\2\2\2@A\7\4\2\2AQ\5\f\7\2BC\7\35\2\2CE\7"+
-		"\3\2\2DF\5\n\6\2ED\3\2\2\2EF\3\2\2\2FG\3\2\2\2GQ\7\4\2\2HI\7\f\2\2IJ\7"+
-		"\35\2\2JK\7\34\2\2KQ\5\6\4\5LQ\7\35\2\2MN\7\35\2\2NO\7\34\2\2OQ\5\6\4"+
-		"\3P\63\3\2\2\2P\65\3\2\2\2P\66\3\2\2\2P\67\3\2\2\2P;\3\2\2\2PB\3\2\2\2"+
-		"PH\3\2\2\2PL\3\2\2\2PM\3\2\2\2Q]\3\2\2\2RS\f\16\2\2ST\t\2\2\2T\\\5\6\4"+
-		"\17UV\f\r\2\2VW\t\3\2\2W\\\5\6\4\16XY\f\f\2\2YZ\t\4\2\2Z\\\5\6\4\r[R\3"+
-		"\2\2\2[U\3\2\2\2[X\3\2\2\2\\_\3\2\2\2][\3\2\2\2]^\3\2\2\2^\7\3\2\2\2_"+
-		"]\3\2\2\2`e\7\35\2\2ab\7\5\2\2bd\7\35\2\2ca\3\2\2\2dg\3\2\2\2ec\3\2\2"+
-		"\2ef\3\2\2\2f\t\3\2\2\2ge\3\2\2\2hm\5\6\4\2ij\7\5\2\2jl\5\6\4\2ki\3\2"+
-		"\2\2lo\3\2\2\2mk\3\2\2\2mn\3\2\2\2n\13\3\2\2\2om\3\2\2\2pt\7\6\2\2qs\5"+
-		"\4\3\2rq\3\2\2\2sv\3\2\2\2tr\3\2\2\2tu\3\2\2\2ux\3\2\2\2vt\3\2\2\2wy\5"+
-		"\6\4\2xw\3\2\2\2xy\3\2\2\2yz\3\2\2\2z}\7\7\2\2{}\5\4\3\2|p\3\2\2\2|{\3"+
-		"\2\2\2}\r\3\2\2\2\16\21\61>EP[]emtx|";
+		"\3\u608b\ua72a\u8133\ub9ed\u417c\u3be7\u7786\u5964\3)\u00b1\4\2\t\2\4"+
+		"\3\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\4\b\t\b\3\2\6\2\22\n\2\r\2\16\2"+
+		"\23\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3"+
+		"\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\3\5\3\64\n\3\3\4"+
+		"\3\4\3\4\3\4\3\4\3\4\3\4\3\4\5\4>\n\4\3\4\3\4\3\4\3\4\3\4\5\4E\n\4\3\4"+
+		"\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3"+
+		"\4\3\4\3\4\3\4\3\4\5\4^\n\4\3\4\3\4\3\4\5\4c\n\4\3\4\3\4\3\4\3\4\3\4\7"+
+		"\4j\n\4\f\4\16\4m\13\4\5\4o\n\4\3\4\3\4\3\4\3\4\3\4\3\4\5\4w\n\4\3\4\3"+
+		"\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\3\4\7\4\u008a"+
+		"\n\4\f\4\16\4\u008d\13\4\3\5\3\5\3\5\3\5\3\6\3\6\3\6\7\6\u0096\n\6\f\6"+
+		"\16\6\u0099\13\6\3\7\3\7\3\7\7\7\u009e\n\7\f\7\16\7\u00a1\13\7\3\b\3\b"+
+		"\7\b\u00a5\n\b\f\b\16\b\u00a8\13\b\3\b\5\b\u00ab\n\b\3\b\3\b\5\b\u00af"+
+		"\n\b\3\b\2\3\6\t\2\4\6\b\n\f\16\2\5\4\2\31\32\35\35\3\2\33\34\3\2\36\""+
+		"\2\u00ce\2\21\3\2\2\2\4\63\3\2\2\2\6v\3\2\2\2\b\u008e\3\2\2\2\n\u0092"+
+		"\3\2\2\2\f\u009a\3\2\2\2\16\u00ae\3\2\2\2\20\22\5\4\3\2\21\20\3\2\2\2"+
+		"\22\23\3\2\2\2\23\21\3\2\2\2\23\24\3\2\2\2\24\3\3\2\2\2\25\26\5\6\4\2"+
+		"\26\27\7#\2\2\27\64\3\2\2\2\30\31\7\16\2\2\31\32\7\3\2\2\32\33\5\6\4\2"+
+		"\33\34\7\4\2\2\34\35\5\16\b\2\35\36\7\17\2\2\36\37\5\16\b\2\37\64\3\2"+
+		"\2\2 !\7\16\2\2!\"\7\3\2\2\"#\5\6\4\2#$\7\4\2\2$%\5\16\b\2%\64\3\2\2\2"+
+		"&\'\7\23\2\2\'(\7\3\2\2()\5\6\4\2)*\7\4\2\2*+\7#\2\2+\64\3\2\2\2,-\7\20"+
+		"\2\2-.\7\3\2\2./\5\6\4\2/\60\7\4\2\2\60\61\5\16\b\2\61\64\3\2\2\2\62\64"+
+		"\7#\2\2\63\25\3\2\2\2\63\30\3\2\2\2\63 \3\2\2\2\63&\3\2\2\2\63,\3\2\2"+
+		"\2\63\62\3\2\2\2\64\5\3\2\2\2\65\66\b\4\1\2\66\67\7\3\2\2\678\5\6\4\2"+
+		"89\7\4\2\29w\3\2\2\2:;\7\21\2\2;=\7\3\2\2<>\5\n\6\2=<\3\2\2\2=>\3\2\2"+
+		"\2>?\3\2\2\2?@\7\4\2\2@w\5\16\b\2AB\7%\2\2BD\7\3\2\2CE\5\f\7\2DC\3\2\2"+
+		"\2DE\3\2\2\2EF\3\2\2\2Fw\7\4\2\2GH\7%\2\2HI\7\6\2\2IJ\5\6\4\2JK\7\7\2"+
+		"\2KL\7$\2\2LM\5\6\4\17Mw\3\2\2\2NO\7%\2\2OP\7\6\2\2PQ\5\6\4\2QR\7\7\2"+
+		"\2Rw\3\2\2\2ST\7\22\2\2TU\7%\2\2UV\7$\2\2Vw\5\6\4\rWw\7%\2\2XY\7%\2\2"+
+		"YZ\7$\2\2Zw\5\6\4\13[]\7\6\2\2\\^\5\f\7\2]\\\3\2\2\2]^\3\2\2\2^_\3\2\2"+
+		"\2_w\7\7\2\2`b\7\b\2\2ac\5\f\7\2ba\3\2\2\2bc\3\2\2\2cd\3\2\2\2dw\7\t\2"+
+		"\2en\7\n\2\2fk\5\b\5\2gh\7\13\2\2hj\5\b\5\2ig\3\2\2\2jm\3\2\2\2ki\3\2"+
+		"\2\2kl\3\2\2\2lo\3\2\2\2mk\3\2\2\2nf\3\2\2\2no\3\2\2\2op\3\2\2\2pw\7\f"+
+		"\2\2qw\7\24\2\2rw\7\25\2\2sw\7\26\2\2tw\7\27\2\2uw\7\30\2\2v\65\3\2\2"+
+		"\2v:\3\2\2\2vA\3\2\2\2vG\3\2\2\2vN\3\2\2\2vS\3\2\2\2vW\3\2\2\2vX\3\2\2"+
+		"\2v[\3\2\2\2v`\3\2\2\2ve\3\2\2\2vq\3\2\2\2vr\3\2\2\2vs\3\2\2\2vt\3\2\2"+
+		"\2vu\3\2\2\2w\u008b\3\2\2\2xy\f\26\2\2yz\t\2\2\2z\u008a\5\6\4\27{|\f\24"+
+		"\2\2|}\t\3\2\2}\u008a\5\6\4\25~\177\f\23\2\2\177\u0080\t\4\2\2\u0080\u008a"+
+		"\5\6\4\24\u0081\u0082\f\22\2\2\u0082\u0083\7\5\2\2\u0083\u0084\7%\2\2"+
+		"\u0084\u0085\7$\2\2\u0085\u008a\5\6\4\22\u0086\u0087\f\27\2\2\u0087\u0088"+
+		"\7\5\2\2\u0088\u008a\7%\2\2\u0089x\3\2\2\2\u0089{\3\2\2\2\u0089~\3\2\2"+
+		"\2\u0089\u0081\3\2\2\2\u0089\u0086\3\2\2\2\u008a\u008d\3\2\2\2\u008b\u0089"+
+		"\3\2\2\2\u008b\u008c\3\2\2\2\u008c\7\3\2\2\2\u008d\u008b\3\2\2\2\u008e"+
+		"\u008f\7%\2\2\u008f\u0090\7\r\2\2\u0090\u0091\5\6\4\2\u0091\t\3\2\2\2"+
+		"\u0092\u0097\7%\2\2\u0093\u0094\7\13\2\2\u0094\u0096\7%\2\2\u0095\u0093"+
+		"\3\2\2\2\u0096\u0099\3\2\2\2\u0097\u0095\3\2\2\2\u0097\u0098\3\2\2\2\u0098"+
+		"\13\3\2\2\2\u0099\u0097\3\2\2\2\u009a\u009f\5\6\4\2\u009b\u009c\7\13\2"+
+		"\2\u009c\u009e\5\6\4\2\u009d\u009b\3\2\2\2\u009e\u00a1\3\2\2\2\u009f\u009d"+
+		"\3\2\2\2\u009f\u00a0\3\2\2\2\u00a0\r\3\2\2\2\u00a1\u009f\3\2\2\2\u00a2"+
+		"\u00a6\7\n\2\2\u00a3\u00a5\5\4\3\2\u00a4\u00a3\3\2\2\2\u00a5\u00a8\3\2"+
+		"\2\2\u00a6\u00a4\3\2\2\2\u00a6\u00a7\3\2\2\2\u00a7\u00aa\3\2\2\2\u00a8"+
+		"\u00a6\3\2\2\2\u00a9\u00ab\5\6\4\2\u00aa\u00a9\3\2\2\2\u00aa\u00ab\3\2"+
+		"\2\2\u00ab\u00ac\3\2\2\2\u00ac\u00af\7\f\2\2\u00ad\u00af\5\4\3\2\u00ae"+
+		"\u00a2\3\2\2\2\u00ae\u00ad\3\2\2\2\u00af\17\3\2\2\2\22\23\63=D]bknv\u0089"+
+		"\u008b\u0097\u009f\u00a6\u00aa\u00ae";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
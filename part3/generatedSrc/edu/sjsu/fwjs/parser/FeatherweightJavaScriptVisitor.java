@@ -59,19 +59,19 @@ public interface FeatherweightJavaScriptVisitor<T> extends ParseTreeVisitor<T> {
 	 */
 	T visitEmptyStmt(FeatherweightJavaScriptParser.EmptyStmtContext ctx);
 	/**
-	 * Visit a parse tree produced by the {@code parens}
+	 * Visit a parse tree produced by the {@code listLit}
 	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
 	 * @param ctx the parse tree
 	 * @return the visitor result
 	 */
-	T visitParens(FeatherweightJavaScriptParser.ParensContext ctx);
+	T visitListLit(FeatherweightJavaScriptParser.ListLitContext ctx);
 	/**
-	 * Visit a parse tree produced by the {@code MulDivMod}
+	 * Visit a parse tree produced by the {@code parens}
 	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
 	 * @param ctx the parse tree
 	 * @return the visitor result
 	 */
-	T visitMulDivMod(FeatherweightJavaScriptParser.MulDivModContext ctx);
+	T visitParens(FeatherweightJavaScriptParser.ParensContext ctx);
 	/**
 	 * Visit a parse tree produced by the {@code funcApp}
 	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
@@ -87,12 +87,12 @@ public interface FeatherweightJavaScriptVisitor<T> extends ParseTreeVisitor<T> {
 	 */
 	T visitBool(FeatherweightJavaScriptParser.BoolContext ctx);
 	/**
-	 * Visit a parse tree produced by the {@code null}
+	 * Visit a parse tree produced by the {@code string}
 	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
 	 * @param ctx the parse tree
 	 * @return the visitor result
 	 */
-	T visitNull(FeatherweightJavaScriptParser.NullContext ctx);
+	T visitString(FeatherweightJavaScriptParser.StringContext ctx);
 	/**
 	 * Visit a parse tree produced by the {@code AddSub}
 	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
@@ -100,6 +100,76 @@ public interface FeatherweightJavaScriptVisitor<T> extends ParseTreeVisitor<T> {
 	 * @return the visitor result
 	 */
 	T visitAddSub(FeatherweightJavaScriptParser.AddSubContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code double}
+	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitDouble(FeatherweightJavaScriptParser.DoubleContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code index}
+	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitIndex(FeatherweightJavaScriptParser.IndexContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code varRef}
+	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitVarRef(FeatherweightJavaScriptParser.VarRefContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code indexAssign}
+	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitIndexAssign(FeatherweightJavaScriptParser.IndexAssignContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code varAssign}
+	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitVarAssign(FeatherweightJavaScriptParser.VarAssignContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code objectLit}
+	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitObjectLit(FeatherweightJavaScriptParser.ObjectLitContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code int}
+	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitInt(FeatherweightJavaScriptParser.IntContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code arrayLit}
+	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitArrayLit(FeatherweightJavaScriptParser.ArrayLitContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code MulDivMod}
+	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitMulDivMod(FeatherweightJavaScriptParser.MulDivModContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code null}
+	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitNull(FeatherweightJavaScriptParser.NullContext ctx);
 	/**
 	 * Visit a parse tree produced by the {@code Comparison}
 	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
@@ -115,12 +185,12 @@ public interface FeatherweightJavaScriptVisitor<T> extends ParseTreeVisitor<T> {
 	 */
 	T visitFuncDecl(FeatherweightJavaScriptParser.FuncDeclContext ctx);
 	/**
-	 * Visit a parse tree produced by the {@code varRef}
+	 * Visit a parse tree produced by the {@code prop}
 	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
 	 * @param ctx the parse tree
 	 * @return the visitor result
 	 */
-	T visitVarRef(FeatherweightJavaScriptParser.VarRefContext ctx);
+	T visitProp(FeatherweightJavaScriptParser.PropContext ctx);
 	/**
 	 * Visit a parse tree produced by the {@code varDecl}
 	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
@@ -129,19 +199,18 @@ public interface FeatherweightJavaScriptVisitor<T> extends ParseTreeVisitor<T> {
 	 */
 	T visitVarDecl(FeatherweightJavaScriptParser.VarDeclContext ctx);
 	/**
-	 * Visit a parse tree produced by the {@code int}
+	 * Visit a parse tree produced by the {@code propAssign}
 	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
 	 * @param ctx the parse tree
 	 * @return the visitor result
 	 */
-	T visitInt(FeatherweightJavaScriptParser.IntContext ctx);
+	T visitPropAssign(FeatherweightJavaScriptParser.PropAssignContext ctx);
 	/**
-	 * Visit a parse tree produced by the {@code varAssign}
-	 * labeled alternative in {@link FeatherweightJavaScriptParser#expr}.
+	 * Visit a parse tree produced by {@link FeatherweightJavaScriptParser#property}.
 	 * @param ctx the parse tree
 	 * @return the visitor result
 	 */
-	T visitVarAssign(FeatherweightJavaScriptParser.VarAssignContext ctx);
+	T visitProperty(FeatherweightJavaScriptParser.PropertyContext ctx);
 	/**
 	 * Visit a parse tree produced by {@link FeatherweightJavaScriptParser#params}.
 	 * @param ctx the parse tree
@@ -0,0 +1,69 @@
+package edu.sjsu.fwjs;
+
+/**
+ * The functions every program starts with.
+ *
+ * Builtins are not variables of the global environment: a global that
+ * is not bound falls back to the builtin of the same name, so a program
+ * may still declare its own cons or head (as lists.fwjs does).
+ *
+ * The list builtins work on PairVals; the empty list is null.
+ *   cons(h, t)    a list of h followed by the list t
+ *   head(lst)     the first value of lst
+ *   tail(lst)     lst without its first value
+ *   isEmpty(lst)  whether lst is the empty list
+ *
+ *   array(n)      a new array of n zeros
+ *   length(a)     the number of elements of an array or a list,
+ *                 or the number of characters of a string
+ */
+class Builtins {
+    private static final NameTable TABLE = new NameTable();
+
+    static {
+        define(BuiltinVal.of("cons", "h", "t", PairVal::new));
+        define(BuiltinVal.of("head", "lst", lst -> pair("head", lst).getHead()));
+        define(BuiltinVal.of("tail", "lst", lst -> pair("tail", lst).getTail()));
+        define(BuiltinVal.of("isEmpty", "lst", lst -> BoolVal.valueOf(lst instanceof NullVal)));
+        define(BuiltinVal.of("array", "n", n -> new ArrayVal(new int[count(n)])));
+        define(BuiltinVal.of("length", "a", Builtins::length));
+    }
+
+    private Builtins() {}
+
+    private static void define(BuiltinVal f) {
+        TABLE.put(Symbol.of(f.getName()), new Cell(f));
+    }
+
+    /**
+     * Returns the cell holding the builtin named name, or null if there
+     * is none.  The cell must not be assigned.
+     */
+    public static Cell lookup(Symbol name) {
+        return TABLE.get(name);
+    }
+
+    private static int count(Value n) {
+        if (n instanceof IntVal && ((IntVal) n).toInt() >= 0) return ((IntVal) n).toInt();
+        throw new RuntimeException("Invalid array length: " + n);
+    }
+
+    private static Value length(Value a) {
+        if (a instanceof ArrayVal) return IntVal.valueOf(((ArrayVal) a).length());
+        if (a instanceof StrVal) return IntVal.valueOf(((StrVal) a).length());
+        int n = 0;
+        for (; a instanceof PairVal; a = ((PairVal) a).getTail()) {
+            n++;
+        }
+        if (a instanceof NullVal) return IntVal.valueOf(n);
+        throw new RuntimeException("length expects an array, a list or a string, not " + a);
+    }
+
+    private static PairVal pair(String function, Value lst) {
+        if (lst instanceof PairVal) return (PairVal) lst;
+        if (lst instanceof NullVal) {
+            throw new RuntimeException(function + " of an empty list");
+        }
+        throw new RuntimeException(function + " expects a list, not " + lst);
+    }
+}
@@ -0,0 +1,128 @@
+package edu.sjsu.fwjs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates the parts of a program that do not depend on its input,
+ * once, before it runs.  Runs before the Resolver.
+ *
+ * Operators whose operands are literals become a literal, and an if
+ * whose condition is a literal becomes the branch it takes (unless the
+ * other branch declares a variable).  Operations
+ * that fail, such as dividing by zero, are left for the program to
+ * fail at run time.
+ *
+ * A variable whose value is a literal is propagated to its uses: a
+ * var declared only once, by a statement of the function body (not
+ * nested in an if or a while), that is never assigned and is not used
+ * before that statement.  Nested functions that declare a variable of
+ * the same name are left alone.  The declaration itself stays, so the
+ * variable still exists.
+ *
+ * Globals are only propagated for a whole program, run on its own:
+ * otherwise another program sharing the global environment (see
+ * Environment.fork) might assign them.
+ */
+class ConstantFolder {
+    private ConstantFolder() {}
+
+    /**
+     * Folds a program.  If wholeProgram is set, the program runs by
+     * itself in a new global environment, so its globals are its own.
+     */
+    public static Expression fold(Expression prog, boolean wholeProgram) {
+        return foldScope(prog, new ArrayList<Symbol>(),
+                new HashMap<Symbol,Value>(), wholeProgram);
+    }
+
+    /**
+     * Folds the body of a function (or the program), given the params of
+     * the function and the constants of the enclosing scopes.
+     */
+    private static Expression foldScope(Expression body, List<Symbol> params,
+            Map<Symbol,Value> outer, boolean propagate) {
+        if (body == null) return null;
+        List<Expression> stmts = new ArrayList<Expression>();
+        ScopeInfo.statements(body, stmts);
+        ScopeInfo scope = ScopeInfo.of(stmts);
+
+        // Locals of this function hide the constants of enclosing ones
+        Map<Symbol,Value> consts = new HashMap<Symbol,Value>(outer);
+        consts.keySet().removeAll(params);
+        consts.keySet().removeAll(scope.declaredAt.keySet());
+
+        List<Expression> folded = new ArrayList<Expression>();
+        for (int i = 0; i < stmts.size(); i++) {
+            Expression stmt = foldExpr(stmts.get(i), consts);
+            if (propagate && stmt instanceof VarDeclExpr) {
+                VarDeclExpr vde = (VarDeclExpr) stmt;
+                if (vde.getExpression() instanceof ValueExpr
+                        && isConstant(scope, vde.getName(), i, params)) {
+                    consts.put(vde.getName(), ((ValueExpr) vde.getExpression()).getValue());
+                }
+            }
+            // A literal statement does nothing, unless it is the value of the body
+            if (i == stmts.size() - 1 || !(stmt instanceof ValueExpr)) {
+                folded.add(stmt);
+            }
+        }
+        if (folded.size() == 1) return folded.get(0);
+        return new BlockExpr(folded.toArray(new Expression[folded.size()]));
+    }
+
+    /**
+     * Whether the local declared by statement i can be replaced by its value.
+     */
+    private static boolean isConstant(ScopeInfo scope, Symbol name, int i, List<Symbol> params) {
+        Integer decl = scope.declaredAt.get(name);
+        Integer use = scope.firstUse.get(name);
+        return decl != null && decl == i && !params.contains(name)
+            && !scope.assigned.contains(name) && (use == null || use > i);
+    }
+
+    /**
+     * Folds an expression, replacing the variables in consts by their values.
+     */
+    private static Expression foldExpr(Expression exp, Map<Symbol,Value> consts) {
+        if (exp == null) {
+            return null;
+        } else if (exp instanceof VarExpr) {
+            Value v = consts.get(((VarExpr) exp).getName());
+            return v == null ? exp : new ValueExpr(v);
+        } else if (exp instanceof FunctionDeclExpr) {
+            FunctionDeclExpr fde = (FunctionDeclExpr) exp;
+            fde.mapChildren(body -> foldScope(body, fde.getParams(), consts, true));
+            return fde;
+        }
+        exp.mapChildren(e -> foldExpr(e, consts));
+
+        if (exp instanceof BinOpExpr) {
+            BinOpExpr boe = (BinOpExpr) exp;
+            if (boe.getLeft() instanceof ValueExpr && boe.getRight() instanceof ValueExpr) {
+                try {
+                    // Literals do not look up variables, so any environment will do
+                    return new ValueExpr(boe.evaluate(new Environment()));
+                } catch (RuntimeException e) {
+                    return exp;
+                }
+            }
+        } else if (exp instanceof IfExpr) {
+            IfExpr ie = (IfExpr) exp;
+            if (ie.getCondition() instanceof ValueExpr) {
+                Value cond = ((ValueExpr) ie.getCondition()).getValue();
+                // The branch not taken may still declare locals of the function
+                if (cond instanceof BoolVal) {
+                    boolean taken = ((BoolVal) cond).toBoolean();
+                    Expression branch = taken ? ie.getThen() : ie.getElse();
+                    if (ScopeInfo.localsOf(taken ? ie.getElse() : ie.getThen()).isEmpty()) {
+                        return branch != null ? branch : new ValueExpr(NullVal.NULL);
+                    }
+                }
+            }
+        }
+        return exp;
+    }
+}
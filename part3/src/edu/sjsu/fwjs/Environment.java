@@ -1,22 +1,268 @@
 package edu.sjsu.fwjs;
 
-import java.util.Map;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
 
 public class Environment {
-    private Map<String,Value> env = new HashMap<String,Value>();
+    /**
+     * Returned by lookupVar for a variable that is not bound anywhere.
+     * Compared by identity, so it is distinct from a variable bound to null.
+     */
+    static final Value UNDEFINED = new NullVal();
+
+    /**
+     * What an unbound variable evaluates to.
+     */
+    static final Value NULL = NullVal.NULL;
+
+    private static final Cell[] NO_CELLS = new Cell[0];
+
+    private NameTable env;
+    private Value[] slots;
+    private Cell[] cells;
+    private Cell[] free;
+    private Scope scope;
     private Environment outerEnv;
+    private Environment globalEnv;
+    private FrameStack stack;
+
+    // For a global environment forked from another: the frozen environment
+    // whose variables it starts out with (see fork)
+    private Environment base;
+    private boolean frozen;
+
+    // Guards the names of a concurrent global environment; null otherwise
+    private StampedLock lock;
+
+    /**
+     * Bumped whenever a variable is added to this frame by name,
+     * so cached global lookups can tell they are stale.
+     */
+    private volatile int version;
 
     /**
      * Constructor for global environment
      */
-    public Environment() {}
+    public Environment() {
+        this(false);
+    }
+
+    /**
+     * Constructor for a global environment that several threads may
+     * evaluate programs against at once, if concurrent is true.
+     *
+     * Looking up a global is then an optimistic read, which takes no lock
+     * unless it races with a thread adding a global; adding one takes a
+     * write lock.  Assigning an existing global is a plain store to its
+     * cell, as is every access to locals, so as in Java, unsynchronized
+     * updates of a shared variable (such as a counter) can be lost,
+     * but the environment itself is never corrupted.
+     */
+    public Environment(boolean concurrent) {
+        this.env = new NameTable();
+        this.globalEnv = this;
+        if (concurrent) this.lock = new StampedLock();
+    }
 
     /**
      * Constructor for local environment of a function
      */
     public Environment(Environment outerEnv) {
+        this.env = new NameTable();
         this.outerEnv = outerEnv;
+        this.globalEnv = outerEnv.globalEnv;
+    }
+
+    /**
+     * Constructor for local environment of a function whose variables
+     * have been resolved (see Scope).  free holds the cells the closure
+     * captured.  A slot or cell holds null until its variable is bound.
+     *
+     * Resolved variables are never looked up by name, so to name-based
+     * lookups this frame is empty and they go straight to globalEnv.
+     */
+    public Environment(Environment globalEnv, Scope scope, Cell[] free) {
+        this.outerEnv = globalEnv;
+        this.globalEnv = globalEnv;
+        this.scope = scope;
+        this.slots = new Value[scope.getSlotCount()];
+        this.cells = scope.getCellCount() == 0 ? NO_CELLS : new Cell[scope.getCellCount()];
+        for (int i = 0; i < this.cells.length; i++) {
+            this.cells[i] = new Cell(null);
+        }
+        this.free = free;
+    }
+
+    /**
+     * Constructor for a reusable frame of a FrameStack.
+     * It is set up for each call by enter.
+     */
+    Environment(FrameStack stack) {
+        this.stack = stack;
+        this.slots = new Value[8];
+        this.cells = NO_CELLS;
+    }
+
+    /**
+     * Sets up a reusable frame for a call of a function with the given scope.
+     * Fresh cells are made for the captured locals, since closures created
+     * during the call may keep them.
+     */
+    void enter(Environment globalEnv, Scope scope, Cell[] free) {
+        this.outerEnv = globalEnv;
+        this.globalEnv = globalEnv;
+        this.scope = scope;
+        this.free = free;
+        if (this.slots.length < scope.getSlotCount()) {
+            this.slots = new Value[scope.getSlotCount()];
+        }
+        int cellCount = scope.getCellCount();
+        if (cellCount > 0) {
+            this.cells = new Cell[cellCount];
+            for (int i = 0; i < cellCount; i++) {
+                this.cells[i] = new Cell(null);
+            }
+        }
+    }
+
+    /**
+     * Clears a reusable frame at the end of a call.
+     */
+    void exit() {
+        Arrays.fill(this.slots, 0, this.scope.getSlotCount(), null);
+        this.cells = NO_CELLS;
+        this.free = null;
+        this.scope = null;
+    }
+
+    /**
+     * The frame stack calls made from this environment should use.
+     */
+    public FrameStack getStack() {
+        return this.stack != null ? this.stack : FrameStack.current();
+    }
+
+    /**
+     * The outermost environment of this one.
+     */
+    public Environment getGlobal() {
+        return this.globalEnv;
+    }
+
+    /**
+     * Whether other threads may be evaluating against the same globals.
+     */
+    public boolean isConcurrent() {
+        return this.globalEnv.lock != null;
+    }
+
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Makes this global environment read-only, so that it can be
+     * shared by the environments forked from it.
+     */
+    public void freeze() {
+        if (this.outerEnv != null) {
+            throw new RuntimeException("Only a global environment can be frozen");
+        }
+        this.frozen = true;
+        // Cached stores into this environment's cells must now fail
+        this.version++;
+    }
+
+    /**
+     * Creates a global environment that starts out with every variable
+     * of this one, for example a prelude of definitions, in O(1).
+     * This environment is frozen first.  The fork shares its cells until
+     * it assigns one of them, at which point it gets its own copy
+     * (copy-on-write), so nothing the fork does is visible here.
+     */
+    public Environment fork() {
+        freeze();
+        Environment forked = new Environment(this.lock != null);
+        forked.base = this;
+        return forked;
+    }
+
+    /**
+     * Returns the cell holding a variable of this frame,
+     * or null if it is not bound here.  In the global frame, an unbound
+     * name falls back to the builtin of that name (see Builtins).
+     * A cell is never removed once created, so callers that know the
+     * variable is global may hold on to it until the version changes:
+     * the first assignment in a fork replaces a cell shared with the
+     * base by the fork's own copy, and declaring a global hides a builtin.
+     */
+    public Cell lookupCell(Symbol varName) {
+        Cell c = boundCell(varName);
+        if (c == null && this.outerEnv == null) return Builtins.lookup(varName);
+        return c;
+    }
+
+    /**
+     * Like lookupCell, but without the builtins.
+     */
+    private Cell boundCell(Symbol varName) {
+        Cell c = ownCell(varName);
+        if (c == null && this.base != null) return this.base.boundCell(varName);
+        return c;
+    }
+
+    /**
+     * Returns a cell of this frame that may be assigned, holding the
+     * variable named varName.  If the variable is not bound here it is
+     * created with value v, or copied from the base if bound there.
+     */
+    public Cell cellFor(Symbol varName, Value v) {
+        checkWritable();
+        Cell c = ownCell(varName);
+        if (c != null) return c;
+        if (this.lock == null) return addCell(varName, v);
+        long stamp = this.lock.writeLock();
+        try {
+            c = this.env.get(varName);
+            return c != null ? c : addCell(varName, v);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * The cell of a variable bound in this frame's own name table,
+     * not counting the base, or null.
+     */
+    private Cell ownCell(Symbol varName) {
+        if (this.lock == null) return this.env.get(varName);
+        long stamp = this.lock.tryOptimisticRead();
+        Cell c = this.env.getOptimistic(varName);
+        if (this.lock.validate(stamp)) return c;
+        stamp = this.lock.readLock();
+        try {
+            return this.env.get(varName);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Adds a variable that is not in this frame's own name table.
+     * In a concurrent environment the write lock must be held.
+     */
+    private Cell addCell(Symbol varName, Value v) {
+        Cell inherited = this.base == null ? null : this.base.boundCell(varName);
+        Cell c = new Cell(inherited == null ? v : inherited.value);
+        this.env.put(varName, c);
+        this.version++;
+        return c;
+    }
+
+    private void checkWritable() {
+        if (this.frozen) {
+            throw new RuntimeException("Cannot modify a frozen environment");
+        }
     }
 
     /**
@@ -27,21 +273,29 @@ public class Environment {
      * null is returned (similar to how JS returns undefined.
      */
     public Value resolveVar(String varName) {
+        return resolveVar(Symbol.of(varName));
+    }
 
-        // creating a local environment
-        Environment locEnv = new Environment(this);
+    public Value resolveVar(Symbol varName) {
+        Value v = lookupVar(varName);
+        return v == UNDEFINED ? NULL : v;
+    }
 
-        // have to cycle through scopes starting with local
-        while((locEnv != null) && (locEnv.env.get(varName) == null)){
-            locEnv = locEnv.outerEnv;
-        }
+    /**
+     * Like resolveVar, but returns UNDEFINED if the variable is not bound
+     * in any scope.  Each frame is probed once and nothing is allocated.
+     */
+    public Value lookupVar(String varName) {
+        return lookupVar(Symbol.of(varName));
+    }
 
-        if(locEnv == null){
-            return new NullVal();
-        }
-        else {
-            return locEnv.env.get(varName);
+    public Value lookupVar(Symbol varName) {
+        for (Environment e = this; e != null; e = e.outerEnv) {
+            if (e.env == null) continue;
+            Cell c = e.lookupCell(varName);
+            if (c != null) return c.value;
         }
+        return UNDEFINED;
     }
 
     /**
@@ -50,18 +304,18 @@ public class Environment {
      * or any of the function's outer scopes, the var is stored in the global scope.
      */
     public void updateVar(String key, Value v) {
-        // this is local scope
-        if(env.containsKey(key)) {
-            env.put(key, v);
-        }
-        // this is outer scope
-        else if(this.outerEnv != null && this.outerEnv.resolveVar(key) != null){
-            this.outerEnv.updateVar(key, v);
+        updateVar(Symbol.of(key), v);
+    }
 
-        }
-        // global scope bc outEnv has to be null for global
-        else {
-            this.env.put(key, v);
+    public void updateVar(Symbol key, Value v) {
+        Environment e = this;
+        while (!e.replace(key, v)) {
+            // global scope bc outerEnv has to be null for global
+            if (e.outerEnv == null) {
+                e.cellFor(key, v);
+                return;
+            }
+            e = e.outerEnv;
         }
     }
 
@@ -71,9 +325,137 @@ public class Environment {
      * a RuntimeException is thrown.
      */
     public void createVar(String key, Value v) {
-        if(this.env.containsKey(key)) {
+        createVar(Symbol.of(key), v);
+    }
+
+    public void createVar(Symbol key, Value v) {
+        if (!this.putIfAbsent(key, v)) {
           throw new RuntimeException("Variable has been defined in the current scope previously");
         }
-        this.env.put(key, v);
+    }
+
+    /**
+     * Reads the variable in the given slot.
+     * An unbound variable reads as null.
+     */
+    public Value getSlot(int slot) {
+        Value v = this.slots[slot];
+        return v == null ? NULL : v;
+    }
+
+    public void setSlot(int slot, Value v) {
+        this.slots[slot] = v;
+    }
+
+    /**
+     * The cell of a captured local variable.
+     */
+    public Cell getCell(int cell) {
+        return this.cells[cell];
+    }
+
+    /**
+     * The cell of a free variable, captured by the closure.
+     */
+    public Cell getFree(int index) {
+        return this.free[index];
+    }
+
+    /**
+     * Binds a local variable of this frame, given its index in the scope.
+     * If the variable is already bound, a RuntimeException is thrown.
+     */
+    public void defineLocal(int local, Value v) {
+        int pos = this.scope.position(local);
+        if (this.scope.isCaptured(local)) {
+            define(Scope.Kind.CELL, pos, v);
+        } else {
+            define(Scope.Kind.SLOT, pos, v);
+        }
+    }
+
+    /**
+     * Binds the variable in the given slot or cell of this frame.
+     * If the variable is already bound, a RuntimeException is thrown.
+     */
+    public void define(Scope.Kind kind, int pos, Value v) {
+        if (kind == Scope.Kind.CELL) {
+            Cell c = this.cells[pos];
+            if (c.value != null) {
+                throw new RuntimeException("Variable has been defined in the current scope previously");
+            }
+            c.value = v;
+        } else {
+            if (this.slots[pos] != null) {
+                throw new RuntimeException("Variable has been defined in the current scope previously");
+            }
+            this.slots[pos] = v;
+        }
+    }
+
+    /**
+     * Collects the cells a closure of the inner scope captures,
+     * from the locals and free variables of this frame.
+     */
+    public Cell[] capture(Scope inner) {
+        int[] from = inner.getCaptureFrom();
+        if (from.length == 0) return NO_CELLS;
+        Cell[] captured = new Cell[from.length];
+        for (int i = 0; i < from.length; i++) {
+            captured[i] = from[i] >= 0 ? this.cells[from[i]] : this.free[-from[i] - 1];
+        }
+        return captured;
+    }
+
+    /**
+     * Updates a variable of this frame by name,
+     * returning false if it is not bound here.
+     */
+    private boolean replace(Symbol key, Value v) {
+        if (this.env == null) return false;
+        Cell c = ownCell(key);
+        if (c == null && (this.base == null || this.base.boundCell(key) == null)) return false;
+        if (c == null) c = cellFor(key, v);
+        checkWritable();
+        c.value = v;
+        return true;
+    }
+
+    /**
+     * Binds a variable of this frame by name,
+     * returning false if it is already bound here.
+     * Resolved frames have no names, so the variable goes to the global frame.
+     */
+    private boolean putIfAbsent(Symbol key, Value v) {
+        if (this.env == null) return this.outerEnv.putIfAbsent(key, v);
+        if (boundCell(key) != null) return false;
+        checkWritable();
+        if (this.lock == null) {
+            addCell(key, v);
+            return true;
+        }
+        // Another thread may have added the variable since the lookup
+        long stamp = this.lock.writeLock();
+        try {
+            if (this.env.get(key) != null) return false;
+            addCell(key, v);
+            return true;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+}
+
+/**
+ * A mutable box holding the value of a variable.
+ * Globals and other variables stored by name live in cells, and so do
+ * locals captured by a closure, which shares the cell with the frame.
+ * Expressions that have resolved a global variable keep a reference
+ * to its cell, so reading or assigning it is a single field access.
+ */
+class Cell {
+    Value value;
+    public Cell(Value value) {
+        this.value = value;
     }
 }
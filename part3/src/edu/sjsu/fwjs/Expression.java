@@ -1,8 +1,10 @@
 package edu.sjsu.fwjs;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 /**
  * FWJS expressions.
  */
@@ -11,6 +13,59 @@ public interface Expression {
      * Evaluate the expression in the context of the specified environment.
      */
     public Value evaluate(Environment env);
+
+    /**
+     * Evaluates the expression as an operand of arithmetic.
+     * Expressions that compute ints override this to avoid boxing them;
+     * anything else is evaluated and coerced by Value.asInt.
+     * If the value is not int-like, such as a number too large for an
+     * int, an UnexpectedResultException carrying it is thrown instead.
+     */
+    default int evaluateInt(Environment env) {
+        Value v = evaluate(env);
+        if (v instanceof IntVal) return ((IntVal) v).toInt();
+        if (!Value.isIntLike(v)) throw new UnexpectedResultException(v);
+        return Value.asInt(v);
+    }
+
+    /**
+     * Evaluates the expression as a double operand of arithmetic.
+     * Unlike evaluateInt there is no coercion: if the value is not a
+     * DoubleVal, an UnexpectedResultException carrying it is thrown.
+     */
+    default double evaluateDouble(Environment env) {
+        Value v = evaluate(env);
+        if (v instanceof DoubleVal) return ((DoubleVal) v).toDouble();
+        throw new UnexpectedResultException(v);
+    }
+
+    /**
+     * Evaluates the expression as a condition.
+     * Expressions that compute booleans override this to avoid boxing them.
+     * If the value is not a boolean, a RuntimeException is thrown.
+     */
+    default boolean evaluateBoolean(Environment env) {
+        Value v = evaluate(env);
+        if (v instanceof BoolVal) return ((BoolVal) v).toBoolean();
+        throw new RuntimeException("Condition must evaluate to a boolean");
+    }
+
+    /**
+     * Replaces each direct subexpression with the result of applying f to it.
+     * This is how the passes that run between parsing and evaluation
+     * walk and rewrite the tree.
+     */
+    default void mapChildren(UnaryOperator<Expression> f) {}
+
+    /**
+     * Calls f on each direct subexpression.
+     */
+    default void forEachChild(Consumer<Expression> f) {
+        mapChildren(e -> {
+            f.accept(e);
+            return e;
+        });
+    }
 }
 
 // NOTE: Using package access so that all implementations of Expression
@@ -21,24 +76,103 @@ public interface Expression {
  */
 class ValueExpr implements Expression {
     private Value val;
+    private boolean intLike;
+    private int intVal;
     public ValueExpr(Value v) {
         this.val = v;
+        this.intLike = Value.isIntLike(v);
+        this.intVal = Value.asInt(v);
+    }
+    public Value getValue() {
+        return this.val;
     }
     public Value evaluate(Environment env) {
         return this.val;
     }
+    public int evaluateInt(Environment env) {
+        if (!this.intLike) throw new UnexpectedResultException(this.val);
+        return this.intVal;
+    }
 }
 
 /**
  * Expressions that are a FWJS variable.
  */
 class VarExpr implements Expression {
-    private String varName;
+    private Symbol varName;
+    private Scope.Kind kind = Scope.Kind.DYNAMIC;
+    private int pos;
+    // Inline cache for global reads
+    private GlobalRef cache;
     public VarExpr(String varName) {
+        this(Symbol.of(varName));
+    }
+    public VarExpr(Symbol varName) {
         this.varName = varName;
     }
+    public Symbol getName() {
+        return this.varName;
+    }
+    public Scope.Kind getKind() {
+        return this.kind;
+    }
+    public int getPosition() {
+        return this.pos;
+    }
+    /**
+     * Binds this reference to its variable (see Scope.Kind).
+     * Unbound references are resolved by name.
+     */
+    public void bind(Scope.Kind kind, int pos) {
+        this.kind = kind;
+        this.pos = pos;
+    }
     public Value evaluate(Environment env) {
-        return env.resolveVar(varName);
+        Value v;
+        switch (kind) {
+            case SLOT:
+                return env.getSlot(pos);
+            case CELL:
+                v = env.getCell(pos).value;
+                break;
+            case FREE:
+                v = env.getFree(pos).value;
+                break;
+            case GLOBAL:
+                return evaluateGlobal(env);
+            default:
+                return env.resolveVar(varName);
+        }
+        return v == null ? Environment.NULL : v;
+    }
+    private Value evaluateGlobal(Environment env) {
+        Environment g = env.getGlobal();
+        GlobalRef ref = cache;
+        if (ref == null || ref.env != g || ref.version != g.getVersion()) {
+            int version = g.getVersion();
+            Cell c = g.lookupCell(varName);
+            if (c == null) return g.resolveVar(varName);
+            ref = new GlobalRef(g, version, c);
+            cache = ref;
+        }
+        return ref.cell.value;
+    }
+}
+
+/**
+ * The cell a global variable had in a global environment at a given
+ * version, cached by the expressions that refer to the variable.
+ * Immutable, so that threads evaluating the same expression against
+ * different environments never see a mix of two entries.
+ */
+final class GlobalRef {
+    final Environment env;
+    final int version;
+    final Cell cell;
+    public GlobalRef(Environment env, int version, Cell cell) {
+        this.env = env;
+        this.version = version;
+        this.cell = cell;
     }
 }
 
@@ -50,81 +184,467 @@ class PrintExpr implements Expression {
     public PrintExpr(Expression exp) {
         this.exp = exp;
     }
+    public Expression getExpression() {
+        return this.exp;
+    }
     public Value evaluate(Environment env) {
         Value v = exp.evaluate(env);
         System.out.println(v.toString());
         return v;
     }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.exp = f.apply(this.exp);
+    }
 }
 /**
- * Binary operators (+, -, *, etc).
- * Currently only numbers are supported.
+ * Binary operators (+, -, *, /, %, <, <=, >, >=, ==).
+ *
+ * Each node is specialized for the types of its operands.  It starts
+ * out assuming ints: operands are evaluated with evaluateInt, so nested
+ * arithmetic and comparisons compute on raw ints and only the result is
+ * boxed.  Once an operand turns out to be a double, that side switches
+ * to evaluateDouble, so numeric code on doubles does not go through the
+ * generic path either.  An operand of any other type, or of a type the
+ * node does not expect, throws an UnexpectedResultException; the node
+ * then finishes the operation on Values with apply and updates its
+ * guess for the next time.  Once an operand was neither an int nor a
+ * double, such as a LongVal or a string, the node evaluates its operands
+ * as Values from then on.
+ *
+ * Once a node has computed on ints, it replaces itself in its parent
+ * with a node specialized for its operator on ints, such as IntAddExpr
+ * (see IntOpExpr), which has no type checks or switch on the operator.
+ * If the specialized node meets anything but ints, it reverts to a
+ * BinOpExpr for good.  These rewrites change the tree without any
+ * synchronization, so they are not done in a concurrent environment,
+ * where other threads may be running the same nodes: there a node
+ * keeps its guesses, but stays the node it is.
+ *
+ * Integer arithmetic never overflows: a result too large for an int is
+ * a LongVal, and one too large for a long a BigIntVal.  Arithmetic with
+ * a double operand gives a DoubleVal, and + with a string operand
+ * concatenates.
  */
 class BinOpExpr implements Expression {
     private Op op;
-    private List<Expression> exprs;
+    private Expression e1;
+    private Expression e2;
+    // Whether each operand was last seen to be a double rather than an int
+    private boolean double1;
+    private boolean double2;
+    // Whether an operand was neither
+    private boolean boxed;
+    // The expression this node is a child of, set by the Resolver;
+    // without one, the node cannot replace itself
+    private Expression parent;
+    private boolean specialize = true;
     public BinOpExpr(Op op, Expression e1, Expression e2) {
         this.op = op;
-        this.exprs = new ArrayList<Expression>();
-        this.exprs.add(e1);
-        this.exprs.add(e2);
+        this.e1 = e1;
+        this.e2 = e2;
+    }
+    public Op getOp() {
+        return this.op;
+    }
+    public Expression getLeft() {
+        return this.e1;
+    }
+    public Expression getRight() {
+        return this.e2;
+    }
+    public void setParent(Expression parent) {
+        this.parent = parent;
     }
 
-    @SuppressWarnings("incomplete-switch")
-    public Value evaluate(Environment env) {
-        List<Value> list = this.exprs.stream().map(x -> x.evaluate(env)).collect(Collectors.toList());
-        // Convert bool, null, closure val to int to use for operation
-        List<Integer> vals = list.stream().map(
-                x -> {
-                    if (x instanceof BoolVal)
-                        return ((BoolVal) x).toBoolean() ? 1 : 0;
-                    else if (x instanceof NullVal)
-                        return 0;
-                    else if (x instanceof ClosureVal)
-                        return -1;
-                    return ((IntVal) x).toInt();
-                }
-        ).collect(Collectors.toList());
+    /**
+     * Replaces this node in its parent by next, which takes over its
+     * operands.
+     */
+    void replaceWith(BinOpExpr next) {
+        Expression p = this.parent;
+        if (p == null) return;
+        next.parent = p;
+        next.forEachChild(c -> {
+            if (c instanceof BinOpExpr) ((BinOpExpr) c).parent = next;
+        });
+        p.mapChildren(c -> c == this ? next : c);
+    }
+
+    /**
+     * Called once the operands were ints, to switch to the specialized node.
+     */
+    private void specialize() {
+        this.specialize = false;
+        BinOpExpr next = IntOpExpr.of(op, e1, e2);
+        if (next != null) replaceWith(next);
+    }
 
+    /**
+     * Reverts a specialized node to a BinOpExpr that stays generic, and
+     * finishes the operation that the specialized node could not.
+     */
+    Value generalize(Environment env, Value v1, Value v2) {
+        if (env.isConcurrent()) return apply(op, v1, v2);
+        BinOpExpr generic = new BinOpExpr(op, e1, e2);
+        generic.specialize = false;
+        replaceWith(generic);
+        return apply(op, v1, v2);
+    }
 
-        int val1 = vals.get(0);
-        int val2 = vals.get(1);
-        Value v = new NullVal();
+    public Value evaluate(Environment env) {
+        if (boxed) {
+            return apply(op, e1.evaluate(env), e2.evaluate(env));
+        }
+        if (isComparison(op)) {
+            return BoolVal.valueOf(evaluateBoolean(env));
+        }
+        try {
+            if (double1 || double2) {
+                return new DoubleVal(evaluateDouble(env));
+            }
+            return IntVal.valueOf(evaluateInt(env));
+        } catch (UnexpectedResultException e) {
+            return e.getResult();
+        }
+    }
 
+    public int evaluateInt(Environment env) {
+        if (double1 || double2 || boxed) {
+            // The result is most likely a double
+            Value v = evaluate(env);
+            if (v instanceof IntVal) return ((IntVal) v).toInt();
+            throw new UnexpectedResultException(v);
+        }
+        int val1;
+        try {
+            val1 = e1.evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            double1 = isDouble(e.getResult());
+            return evaluateWide(e.getResult(), e2.evaluate(env));
+        }
+        int val2;
+        try {
+            val2 = e2.evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            double2 = isDouble(e.getResult());
+            return evaluateWide(IntVal.valueOf(val1), e.getResult());
+        }
+        if (specialize && !env.isConcurrent()) specialize();
+        long res;
         switch(op) {
             case ADD:
-                v = new IntVal(val1+val2);
+                res = (long) val1+val2;
                 break;
             case SUBTRACT:
-                v = new IntVal(val1-val2);
+                res = (long) val1-val2;
                 break;
             case MULTIPLY:
-                v = new IntVal(val1*val2);
+                res = (long) val1*val2;
                 break;
             case DIVIDE:
-                v = new IntVal(val1/val2);
+                // Only MIN_VALUE / -1 overflows
+                res = (long) val1/val2;
                 break;
             case MOD:
-                v = new IntVal(val1%val2);
-                break;
+                return val1%val2;
+            default:
+                // A comparison used as a number
+                return compare(op, val1, val2) ? 1 : 0;
+        }
+        if ((int) res != res) throw new UnexpectedResultException(new LongVal(res));
+        return (int) res;
+    }
+
+    public double evaluateDouble(Environment env) {
+        if (isComparison(op) || !(double1 || double2) || boxed) {
+            // The result is not a double, or was not the last time
+            Value v = evaluate(env);
+            if (v instanceof DoubleVal) return ((DoubleVal) v).toDouble();
+            throw new UnexpectedResultException(v);
+        }
+        double val1;
+        try {
+            val1 = evaluateOperand(e1, double1, env);
+        } catch (UnexpectedResultException e) {
+            double1 = isDouble(e.getResult());
+            return toDouble(apply(op, e.getResult(), e2.evaluate(env)));
+        }
+        double val2;
+        try {
+            val2 = evaluateOperand(e2, double2, env);
+        } catch (UnexpectedResultException e) {
+            double2 = isDouble(e.getResult());
+            Value v1 = double1 ? new DoubleVal(val1) : IntVal.valueOf((int) val1);
+            return toDouble(apply(op, v1, e.getResult()));
+        }
+        return arithmetic(op, val1, val2);
+    }
+
+    public boolean evaluateBoolean(Environment env) {
+        if (!isComparison(op)) {
+            evaluate(env);
+            throw new RuntimeException("Condition must evaluate to a boolean");
+        }
+        if (boxed) {
+            return ((BoolVal) evaluate(env)).toBoolean();
+        }
+        if (double1 || double2) {
+            return evaluateDoubleComparison(env);
+        }
+        int val1;
+        try {
+            val1 = e1.evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            double1 = isDouble(e.getResult());
+            return ((BoolVal) apply(op, e.getResult(), e2.evaluate(env))).toBoolean();
+        }
+        int val2;
+        try {
+            val2 = e2.evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            double2 = isDouble(e.getResult());
+            return ((BoolVal) apply(op, IntVal.valueOf(val1), e.getResult())).toBoolean();
+        }
+        if (specialize && !env.isConcurrent()) specialize();
+        return compare(op, val1, val2);
+    }
+
+    private boolean evaluateDoubleComparison(Environment env) {
+        double val1;
+        try {
+            val1 = evaluateOperand(e1, double1, env);
+        } catch (UnexpectedResultException e) {
+            double1 = isDouble(e.getResult());
+            return ((BoolVal) apply(op, e.getResult(), e2.evaluate(env))).toBoolean();
+        }
+        double val2;
+        try {
+            val2 = evaluateOperand(e2, double2, env);
+        } catch (UnexpectedResultException e) {
+            double2 = isDouble(e.getResult());
+            Value v1 = double1 ? new DoubleVal(val1) : IntVal.valueOf((int) val1);
+            return ((BoolVal) apply(op, v1, e.getResult())).toBoolean();
+        }
+        return compare(op, val1, val2);
+    }
+
+    /**
+     * Records the type of an operand that was not an int, returning
+     * whether it was a double.
+     */
+    private boolean isDouble(Value operand) {
+        if (operand instanceof DoubleVal) return true;
+        if (!Value.isIntLike(operand)) this.boxed = true;
+        return false;
+    }
+
+    /**
+     * Evaluates an operand as the type it is expected to have, widening
+     * an int to a double.
+     */
+    private static double evaluateOperand(Expression e, boolean isDouble, Environment env) {
+        return isDouble ? e.evaluateDouble(env) : e.evaluateInt(env);
+    }
+
+    private static double toDouble(Value v) {
+        if (v instanceof DoubleVal) return ((DoubleVal) v).toDouble();
+        throw new UnexpectedResultException(v);
+    }
+
+    /**
+     * Finishes evaluateInt once an operand turned out not to be int-like.
+     */
+    private int evaluateWide(Value v1, Value v2) {
+        Value v = apply(op, v1, v2);
+        if (!(v instanceof IntVal)) throw new UnexpectedResultException(v);
+        return ((IntVal) v).toInt();
+    }
+
+    static boolean isComparison(Op op) {
+        switch(op) {
             case GT:
-                v = new BoolVal(val1>val2);
-                break;
             case GE:
-                v = new BoolVal(val1>=val2);
-                break;
             case LT:
-                v = new BoolVal(val1<val2);
-                break;
             case LE:
-                v = new BoolVal(val1<=val2);
-                break;
             case EQ:
-                v = new BoolVal(val1==val2);
-                break;
+                return true;
+            default:
+                return false;
         }
+    }
 
-        return v;
+    @SuppressWarnings("incomplete-switch")
+    static boolean compare(Op op, int val1, int val2) {
+        switch(op) {
+            case GT:
+                return val1>val2;
+            case GE:
+                return val1>=val2;
+            case LT:
+                return val1<val2;
+            case LE:
+                return val1<=val2;
+            case EQ:
+                return val1==val2;
+        }
+        throw new IllegalStateException(op + " is not a comparison");
+    }
+
+    @SuppressWarnings("incomplete-switch")
+    static boolean compare(Op op, double val1, double val2) {
+        switch(op) {
+            case GT:
+                return val1>val2;
+            case GE:
+                return val1>=val2;
+            case LT:
+                return val1<val2;
+            case LE:
+                return val1<=val2;
+            case EQ:
+                return val1==val2;
+        }
+        throw new IllegalStateException(op + " is not a comparison");
+    }
+
+    /**
+     * Arithmetic on doubles, following Java: dividing by zero gives an
+     * infinity or NaN rather than an error.
+     */
+    static double arithmetic(Op op, double val1, double val2) {
+        switch(op) {
+            case ADD:
+                return val1+val2;
+            case SUBTRACT:
+                return val1-val2;
+            case MULTIPLY:
+                return val1*val2;
+            case DIVIDE:
+                return val1/val2;
+            case MOD:
+                return val1%val2;
+            default:
+                throw new IllegalStateException(op + " is a comparison");
+        }
+    }
+
+    /**
+     * Applies op to two values, promoting the result as needed.
+     * This is the slow path, for operands that are not both int-like.
+     */
+    static Value apply(Op op, Value v1, Value v2) {
+        if (v1 instanceof StrVal || v2 instanceof StrVal) {
+            return applyStr(op, v1, v2);
+        }
+        if (v1 instanceof DoubleVal || v2 instanceof DoubleVal) {
+            double val1 = toDoubleOperand(v1);
+            double val2 = toDoubleOperand(v2);
+            if (isComparison(op)) return BoolVal.valueOf(compare(op, val1, val2));
+            return new DoubleVal(arithmetic(op, val1, val2));
+        }
+        if (v1 instanceof BigIntVal || v2 instanceof BigIntVal) {
+            return applyBig(op, toBigInteger(v1), toBigInteger(v2));
+        }
+        long val1 = toLong(v1);
+        long val2 = toLong(v2);
+        if (val2 == 0 && (op == Op.DIVIDE || op == Op.MOD)) {
+            throw new ArithmeticException("/ by zero");
+        }
+        try {
+            switch(op) {
+                case ADD:
+                    return Value.ofLong(Math.addExact(val1, val2));
+                case SUBTRACT:
+                    return Value.ofLong(Math.subtractExact(val1, val2));
+                case MULTIPLY:
+                    return Value.ofLong(Math.multiplyExact(val1, val2));
+                case DIVIDE:
+                    if (val1 == Long.MIN_VALUE && val2 == -1) break;
+                    return Value.ofLong(val1/val2);
+                case MOD:
+                    return Value.ofLong(val1%val2);
+                default:
+                    return BoolVal.valueOf(compare(op, Long.compare(val1, val2), 0));
+            }
+        } catch (ArithmeticException e) {
+            // Overflow: try again with BigIntegers
+        }
+        return applyBig(op, BigInteger.valueOf(val1), BigInteger.valueOf(val2));
+    }
+
+    /**
+     * + concatenates a string with the string form of any value.
+     * Comparisons involving a string compare string forms.
+     */
+    private static Value applyStr(Op op, Value v1, Value v2) {
+        if (op == Op.ADD) {
+            return StrVal.concat(toStr(v1), toStr(v2));
+        }
+        if (isComparison(op)) {
+            return BoolVal.valueOf(compare(op, v1.toString().compareTo(v2.toString()), 0));
+        }
+        throw new RuntimeException("Cannot apply " + op + " to a string");
+    }
+
+    private static StrVal toStr(Value v) {
+        if (v instanceof StrVal) return (StrVal) v;
+        return new StrVal(String.valueOf(v));
+    }
+
+    private static Value applyBig(Op op, BigInteger val1, BigInteger val2) {
+        switch(op) {
+            case ADD:
+                return Value.ofBigInteger(val1.add(val2));
+            case SUBTRACT:
+                return Value.ofBigInteger(val1.subtract(val2));
+            case MULTIPLY:
+                return Value.ofBigInteger(val1.multiply(val2));
+            case DIVIDE:
+                return Value.ofBigInteger(val1.divide(val2));
+            case MOD:
+                return Value.ofBigInteger(val1.remainder(val2));
+            default:
+                return BoolVal.valueOf(compare(op, val1.compareTo(val2), 0));
+        }
+    }
+
+    private static long toLong(Value v) {
+        if (v instanceof LongVal) return ((LongVal) v).toLong();
+        return Value.asInt(v);
+    }
+
+    private static double toDoubleOperand(Value v) {
+        if (v instanceof DoubleVal) return ((DoubleVal) v).toDouble();
+        if (v instanceof BigIntVal) return ((BigIntVal) v).toBigInteger().doubleValue();
+        return toLong(v);
+    }
+
+    private static BigInteger toBigInteger(Value v) {
+        if (v instanceof BigIntVal) return ((BigIntVal) v).toBigInteger();
+        return BigInteger.valueOf(toLong(v));
+    }
+
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.e1 = f.apply(this.e1);
+        this.e2 = f.apply(this.e2);
+    }
+}
+
+/**
+ * Thrown by evaluateInt when the value of an expression is not
+ * int-like, carrying the value so the caller can carry on with it
+ * without evaluating the expression again.
+ */
+class UnexpectedResultException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private final Value result;
+    public UnexpectedResultException(Value result) {
+        // Used for control flow, so no stack trace is needed
+        super(null, null, false, false);
+        this.result = result;
+    }
+    public Value getResult() {
+        return this.result;
     }
 }
 
@@ -141,24 +661,33 @@ class IfExpr implements Expression {
         this.thn = thn;
         this.els = els;
     }
+    public Expression getCondition() {
+        return this.cond;
+    }
+    public Expression getThen() {
+        return this.thn;
+    }
+    /**
+     * The else branch, or null if there is none.
+     */
+    public Expression getElse() {
+        return this.els;
+    }
     public Value evaluate(Environment env) {
-        Value condition = cond.evaluate(env);
-
-        // check if condition is boolean
-        if(condition instanceof BoolVal) {
-
-          // if condition is true, evaluate thn
-          if(((BoolVal)condition).toBoolean()) {
-            return thn.evaluate(env);
-          } else if(els != null) {  // if condition is false, evaluate els
-            return els.evaluate(env);
-          } else {
-            return new NullVal();
-          }
+        // if condition is true, evaluate thn
+        if(cond.evaluateBoolean(env)) {
+          return thn.evaluate(env);
+        } else if(els != null) {  // if condition is false, evaluate els
+          return els.evaluate(env);
         } else {
-          throw new RuntimeException("Condition must evaluate to a boolean");
+          return NullVal.NULL;
         }
     }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.cond = f.apply(this.cond);
+        this.thn = f.apply(this.thn);
+        if (this.els != null) this.els = f.apply(this.els);
+    }
 }
 
 /**
@@ -171,25 +700,53 @@ class WhileExpr implements Expression {
         this.cond = cond;
         this.body = body;
     }
+    public Expression getCondition() {
+        return this.cond;
+    }
+    public Expression getBody() {
+        return this.body;
+    }
     public Value evaluate(Environment env) {
-      Value res = new NullVal();
-      while (true) {
-        Value condition = cond.evaluate(env);
-        
-        if(condition instanceof BoolVal) {
-          
-          // if condition is true, evaluate body
-          if(((BoolVal)condition).toBoolean()) {
-           res = body.evaluate(env);
-          } else {  // otherwise, break out of while loop
-            break;
-          }
-        } else {
-          throw new RuntimeException("Condition must evaluate to a boolean");
-        }
+      Value res = NullVal.NULL;
+      // evaluate body for as long as condition is true
+      while (cond.evaluateBoolean(env)) {
+        res = body.evaluate(env);
       }
       return res;
     }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.cond = f.apply(this.cond);
+        this.body = f.apply(this.body);
+    }
+}
+
+/**
+ * An expression hoisted out of a loop (see LoopHoister).  Its value is
+ * kept in a local of the function, which the pre-header of the loop sets
+ * to UNSET, and is computed at the first iteration that gets here, so
+ * that a loop that never gets here does not compute it, and an
+ * expression that fails does so in the same place as before.
+ */
+final class InvariantExpr implements Expression {
+    static final Value UNSET = new Value() {};
+    private Expression temp;
+    // Assigns the value of the expression to temp
+    private Expression compute;
+    public InvariantExpr(VarExpr temp, AssignExpr compute) {
+        this.temp = temp;
+        this.compute = compute;
+    }
+    public Expression getComputation() {
+        return this.compute;
+    }
+    public Value evaluate(Environment env) {
+        Value v = temp.evaluate(env);
+        return v != UNSET ? v : compute.evaluate(env);
+    }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.temp = f.apply(this.temp);
+        this.compute = f.apply(this.compute);
+    }
 }
 
 /**
@@ -202,6 +759,12 @@ class SeqExpr implements Expression {
         this.e1 = e1;
         this.e2 = e2;
     }
+    public Expression getFirst() {
+        return this.e1;
+    }
+    public Expression getSecond() {
+        return this.e2;
+    }
     public Value evaluate(Environment env) {
         // evaluate the first expression
          e1.evaluate(env);
@@ -210,24 +773,102 @@ class SeqExpr implements Expression {
         // return the value of the second evaluated expression
         return e2.evaluate(env);
     }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.e1 = f.apply(this.e1);
+        this.e2 = f.apply(this.e2);
+    }
+}
+
+/**
+ * A sequence of any number of expressions, such as the statements of a
+ * program or of a block, evaluated in a loop.  Unlike a chain of
+ * SeqExprs, evaluating a long block does not take a deep recursion.
+ */
+class BlockExpr implements Expression {
+    private Expression[] stmts;
+    public BlockExpr(Expression[] stmts) {
+        this.stmts = stmts;
+    }
+    public Expression[] getStatements() {
+        return this.stmts;
+    }
+    public Value evaluate(Environment env) {
+        int last = stmts.length - 1;
+        for (int i = 0; i < last; i++) {
+            stmts[i].evaluate(env);
+        }
+        // The value of the block is the value of the last expression
+        return stmts[last].evaluate(env);
+    }
+    public int evaluateInt(Environment env) {
+        int last = stmts.length - 1;
+        for (int i = 0; i < last; i++) {
+            stmts[i].evaluate(env);
+        }
+        return stmts[last].evaluateInt(env);
+    }
+    public boolean evaluateBoolean(Environment env) {
+        int last = stmts.length - 1;
+        for (int i = 0; i < last; i++) {
+            stmts[i].evaluate(env);
+        }
+        return stmts[last].evaluateBoolean(env);
+    }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        for (int i = 0; i < stmts.length; i++) {
+            this.stmts[i] = f.apply(this.stmts[i]);
+        }
+    }
 }
 
 /**
  * Declaring a variable in the local scope.
  */
 class VarDeclExpr implements Expression {
-    private String varName;
+    private Symbol varName;
+    private Scope.Kind kind = Scope.Kind.DYNAMIC;
+    private int pos;
     private Expression exp;
     public VarDeclExpr(String varName, Expression exp) {
+        this(Symbol.of(varName), exp);
+    }
+    public VarDeclExpr(Symbol varName, Expression exp) {
         this.varName = varName;
         this.exp = exp;
     }
+    public Symbol getName() {
+        return this.varName;
+    }
+    public Scope.Kind getKind() {
+        return this.kind;
+    }
+    public int getPosition() {
+        return this.pos;
+    }
+    public Expression getExpression() {
+        return this.exp;
+    }
+    /**
+     * Binds this declaration to a slot or cell of the current frame.
+     * Unbound declarations create the variable by name.
+     */
+    public void bind(Scope.Kind kind, int pos) {
+        this.kind = kind;
+        this.pos = pos;
+    }
     public Value evaluate(Environment env) {
         Value value = exp.evaluate(env);
-        env.createVar(varName, value);
+        if (kind == Scope.Kind.DYNAMIC) {
+            env.createVar(varName, value);
+        } else {
+            env.define(kind, pos, value);
+        }
 
         return value;
     }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.exp = f.apply(this.exp);
+    }
 }
 
 /**
@@ -236,39 +877,119 @@ class VarDeclExpr implements Expression {
  * to the global scope.
  */
 class AssignExpr implements Expression {
-    private String varName;
+    private Symbol varName;
+    private Scope.Kind kind = Scope.Kind.DYNAMIC;
+    private int pos;
+    // The cell of the global variable
+    private GlobalRef cache;
     private Expression e;
     public AssignExpr(String varName, Expression e) {
+        this(Symbol.of(varName), e);
+    }
+    public AssignExpr(Symbol varName, Expression e) {
         this.varName = varName;
         this.e = e;
     }
+    public Symbol getName() {
+        return this.varName;
+    }
+    public Scope.Kind getKind() {
+        return this.kind;
+    }
+    public int getPosition() {
+        return this.pos;
+    }
+    public Expression getExpression() {
+        return this.e;
+    }
+    /**
+     * Binds this assignment to its variable (see Scope.Kind).
+     * Unbound assignments update the variable by name.
+     */
+    public void bind(Scope.Kind kind, int pos) {
+        this.kind = kind;
+        this.pos = pos;
+    }
     public Value evaluate(Environment env) {
         Value expRes = e.evaluate(env);
-        
-        // update existing var
-        if (env.resolveVar(varName) != null) {
-          env.updateVar(varName, expRes);
-        } else {  // add to global scope if var is not set
-          env.createVar(varName, expRes);
-        }
+        assign(env, expRes);
         return expRes;
     }
+    /**
+     * Stores expRes in the variable, as evaluating this assignment would.
+     */
+    void assign(Environment env, Value expRes) {
+        switch (kind) {
+            case SLOT:
+                env.setSlot(pos, expRes);
+                break;
+            case CELL:
+                env.getCell(pos).value = expRes;
+                break;
+            case FREE:
+                env.getFree(pos).value = expRes;
+                break;
+            case GLOBAL:
+                Environment g = env.getGlobal();
+                GlobalRef ref = cache;
+                if (ref == null || ref.env != g || ref.version != g.getVersion()) {
+                    int version = g.getVersion();
+                    ref = new GlobalRef(g, version, g.cellFor(varName, expRes));
+                    cache = ref;
+                }
+                ref.cell.value = expRes;
+                break;
+            default:
+                // update existing var, or add to global scope if var is not set
+                env.updateVar(varName, expRes);
+        }
+    }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.e = f.apply(this.e);
+    }
 }
 
 /**
  * A function declaration, which evaluates to a closure.
  */
 class FunctionDeclExpr implements Expression {
-    private List<String> params;
+    private List<Symbol> params;
     private Expression body;
+    private Scope scope;
     public FunctionDeclExpr(List<String> params, Expression body) {
-        this.params = params;
+        this.params = new ArrayList<Symbol>();
+        for (String param : params) {
+            this.params.add(Symbol.of(param));
+        }
         this.body = body;
     }
+    public List<Symbol> getParams() {
+        return this.params;
+    }
+    public Expression getBody() {
+        return this.body;
+    }
+    public Scope getScope() {
+        return this.scope;
+    }
+    /**
+     * Sets the layout of this function's variables.
+     * Without a scope, frames are looked up by name.
+     */
+    public void setScope(Scope scope) {
+        this.scope = scope;
+    }
     public Value evaluate(Environment env) {
+      if (scope != null) {
+          // A flat closure: only the cells of the variables it uses
+          return new ClosureVal(params, body, env.getGlobal(), scope, env.capture(scope));
+      }
       // Return a closure with params, body, and environment
       return new ClosureVal(params, body, env);
     }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        if (this.body != null) this.body = f.apply(this.body);
+    }
 }
 
 /**
@@ -281,19 +1002,732 @@ class FunctionAppExpr implements Expression {
         this.f = f;
         this.args = args;
     }
+    public Expression getFunction() {
+        return this.f;
+    }
+    public List<Expression> getArgs() {
+        return this.args;
+    }
     public Value evaluate(Environment env) {
         // evaluating the expression
         Value v = this.f.evaluate(env);
-
-        // evaluating the other expressions
-        List<Value> evaluatedArgs = new ArrayList<>();
-        for(Expression exp : args){
-            evaluatedArgs.add(exp.evaluate(env));
+        if (v instanceof BuiltinVal) {
+            return ((BuiltinVal) v).apply(env, args);
         }
 
         ClosureVal closure = (ClosureVal) v;
 
-        return closure.apply(evaluatedArgs);
+        // the closure evaluates the other expressions
+        return closure.apply(env, args);
+    }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.f = f.apply(this.f);
+        this.args.replaceAll(f);
+    }
+}
+
+/**
+ * A call whose function has been inlined (see Inliner): the body of the
+ * function, with its params renamed to locals of the calling function.
+ * The function is only known when the program is compiled, so the call
+ * first checks that the variable still holds a closure of it, and
+ * otherwise makes the call as written.
+ */
+final class InlinedCallExpr implements Expression {
+    private final FunctionAppExpr call;
+    private final FunctionDeclExpr callee;
+    // The locals standing for the params, assigned the arguments
+    private final AssignExpr[] params;
+    private Expression body;
+    public InlinedCallExpr(FunctionAppExpr call, FunctionDeclExpr callee,
+            AssignExpr[] params, Expression body) {
+        this.call = call;
+        this.callee = callee;
+        this.params = params;
+        this.body = body;
+    }
+    public FunctionAppExpr getCall() {
+        return this.call;
+    }
+    public AssignExpr[] getParams() {
+        return this.params;
+    }
+    public Expression getBody() {
+        return this.body;
+    }
+    public Value evaluate(Environment env) {
+        Value fn = call.getFunction().evaluate(env);
+        if (!(fn instanceof ClosureVal) || ((ClosureVal) fn).getBody() != callee.getBody()) {
+            return call.evaluate(env);
+        }
+        List<Expression> args = call.getArgs();
+        for (int i = 0; i < params.length; i++) {
+            params[i].assign(env, args.get(i).evaluate(env));
+        }
+        return body.evaluate(env);
+    }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.call.mapChildren(f);
+        for (int i = 0; i < params.length; i++) {
+            params[i] = (AssignExpr) f.apply(params[i]);
+        }
+        this.body = f.apply(this.body);
+    }
+}
+
+/**
+ * List literals, such as [1, 2, 3].
+ * The elements are evaluated in order, and the list is built from the
+ * end as PairVals.  The empty list [] is null.
+ */
+class ListExpr implements Expression {
+    private List<Expression> elems;
+    public ListExpr(List<Expression> elems) {
+        this.elems = elems;
+    }
+    public List<Expression> getElements() {
+        return this.elems;
+    }
+    public Value evaluate(Environment env) {
+        Value[] vals = new Value[elems.size()];
+        for (int i = 0; i < vals.length; i++) {
+            vals[i] = elems.get(i).evaluate(env);
+        }
+        Value lst = NullVal.NULL;
+        for (int i = vals.length - 1; i >= 0; i--) {
+            lst = new PairVal(vals[i], lst);
+        }
+        return lst;
+    }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.elems.replaceAll(f);
+    }
+}
+
+/**
+ * Array literals, such as [| 1, 2, 3 |].
+ */
+class ArrayExpr implements Expression {
+    private List<Expression> elems;
+    public ArrayExpr(List<Expression> elems) {
+        this.elems = elems;
+    }
+    public List<Expression> getElements() {
+        return this.elems;
+    }
+    public Value evaluate(Environment env) {
+        Value[] vals = new Value[elems.size()];
+        for (int i = 0; i < vals.length; i++) {
+            vals[i] = elems.get(i).evaluate(env);
+        }
+        return ArrayVal.of(vals);
+    }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.elems.replaceAll(f);
+    }
+}
+
+/**
+ * Reading an element of an array, a[i].
+ * Elements of an int array are read without boxing by evaluateInt.
+ */
+class IndexExpr implements Expression {
+    private Expression array;
+    private Expression index;
+    public IndexExpr(Expression array, Expression index) {
+        this.array = array;
+        this.index = index;
+    }
+    public Expression getArray() {
+        return this.array;
+    }
+    public Expression getIndex() {
+        return this.index;
+    }
+    public Value evaluate(Environment env) {
+        ArrayVal a = toArray(array.evaluate(env));
+        return a.get(evaluateIndex(index, env));
+    }
+    public int evaluateInt(Environment env) {
+        ArrayVal a = toArray(array.evaluate(env));
+        int i = evaluateIndex(index, env);
+        if (a.isIntArray()) return a.getInt(i);
+        Value v = a.get(i);
+        if (v instanceof IntVal) return ((IntVal) v).toInt();
+        if (!Value.isIntLike(v)) throw new UnexpectedResultException(v);
+        return Value.asInt(v);
+    }
+    static ArrayVal toArray(Value v) {
+        if (v instanceof ArrayVal) return (ArrayVal) v;
+        throw new RuntimeException(v + " is not an array");
+    }
+    /**
+     * Evaluates an index, which must be an int: it is out of bounds if it
+     * is too large for one, and any other value is an error.
+     */
+    static int evaluateIndex(Expression index, Environment env) {
+        return toIndex(index.evaluate(env));
+    }
+    static int toIndex(Value v) {
+        if (v instanceof IntVal) return ((IntVal) v).toInt();
+        if (v instanceof LongVal || v instanceof BigIntVal) {
+            throw new RuntimeException("Array index " + v + " out of bounds");
+        }
+        throw new RuntimeException("Array index " + v + " is not an int");
+    }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.array = f.apply(this.array);
+        this.index = f.apply(this.index);
+    }
+}
+
+/**
+ * Updating an element of an array, a[i] = e.
+ */
+class IndexAssignExpr implements Expression {
+    private Expression array;
+    private Expression index;
+    private Expression e;
+    public IndexAssignExpr(Expression array, Expression index, Expression e) {
+        this.array = array;
+        this.index = index;
+        this.e = e;
+    }
+    public Expression getArray() {
+        return this.array;
+    }
+    public Expression getIndex() {
+        return this.index;
+    }
+    public Expression getExpression() {
+        return this.e;
+    }
+    public Value evaluate(Environment env) {
+        ArrayVal a = IndexExpr.toArray(array.evaluate(env));
+        int i = IndexExpr.evaluateIndex(index, env);
+        Value v = e.evaluate(env);
+        a.set(i, v);
+        return v;
+    }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.array = f.apply(this.array);
+        this.index = f.apply(this.index);
+        this.e = f.apply(this.e);
+    }
+}
+
+/**
+ * Object literals, such as {x: 1, y: 2}.
+ * The shape of the object is worked out once, when the literal is
+ * built, so evaluating it only fills in the slots.
+ */
+class ObjectExpr implements Expression {
+    private List<Symbol> names;
+    private List<Expression> values;
+    private Shape shape = Shape.EMPTY;
+    private int[] slots;
+    public ObjectExpr(List<Symbol> names, List<Expression> values) {
+        this.names = names;
+        this.values = values;
+        for (Symbol name : names) {
+            this.shape = this.shape.with(name);
+        }
+        // A name given twice is one property, set by its last value
+        this.slots = new int[names.size()];
+        for (int i = 0; i < slots.length; i++) {
+            this.slots[i] = this.shape.indexOf(names.get(i));
+        }
+    }
+    public List<Symbol> getNames() {
+        return this.names;
+    }
+    public List<Expression> getValues() {
+        return this.values;
+    }
+    public Shape getShape() {
+        return this.shape;
+    }
+    public int[] getSlots() {
+        return this.slots;
+    }
+    public Value evaluate(Environment env) {
+        Value[] vals = new Value[shape.size()];
+        for (int i = 0; i < slots.length; i++) {
+            vals[slots[i]] = values.get(i).evaluate(env);
+        }
+        return new ObjectVal(shape, vals);
+    }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.values.replaceAll(f);
+    }
+}
+
+/**
+ * Reading a property of an object, o.name.
+ * A missing property reads as null.  The node caches the slot of the
+ * property for the last shape it saw, so reading a property of objects
+ * of a stable shape is a shape check and an array load.
+ */
+class PropExpr implements Expression {
+    private Expression obj;
+    private Symbol name;
+    private PropertyCache cache;
+    public PropExpr(Expression obj, Symbol name) {
+        this.obj = obj;
+        this.name = name;
+    }
+    public Expression getObject() {
+        return this.obj;
+    }
+    public Symbol getName() {
+        return this.name;
+    }
+    public Value evaluate(Environment env) {
+        ObjectVal o = toObject(obj.evaluate(env));
+        PropertyCache c = cache;
+        if (c == null || c.shape != o.getShape()) {
+            c = PropertyCache.forRead(o.getShape(), name);
+            cache = c;
+        }
+        return c.index < 0 ? NullVal.NULL : o.getSlot(c.index);
+    }
+    static ObjectVal toObject(Value v) {
+        if (v instanceof ObjectVal) return (ObjectVal) v;
+        throw new RuntimeException(v + " is not an object");
+    }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.obj = f.apply(this.obj);
+    }
+}
+
+/**
+ * Assigning a property of an object, o.name = e, which adds the
+ * property if the object does not have it.  The node caches the slot,
+ * and the shape transition when the property is added.
+ */
+class PropAssignExpr implements Expression {
+    private Expression obj;
+    private Symbol name;
+    private Expression e;
+    private PropertyCache cache;
+    public PropAssignExpr(Expression obj, Symbol name, Expression e) {
+        this.obj = obj;
+        this.name = name;
+        this.e = e;
+    }
+    public Expression getObject() {
+        return this.obj;
+    }
+    public Symbol getName() {
+        return this.name;
+    }
+    public Expression getExpression() {
+        return this.e;
+    }
+    public Value evaluate(Environment env) {
+        ObjectVal o = PropExpr.toObject(obj.evaluate(env));
+        Value v = e.evaluate(env);
+        PropertyCache c = cache;
+        if (c == null || c.shape != o.getShape()) {
+            c = PropertyCache.forWrite(o.getShape(), name);
+            cache = c;
+        }
+        if (c.next == c.shape) {
+            o.setSlot(c.index, v);
+        } else {
+            o.add(c.next, c.index, v);
+        }
+        return v;
+    }
+    public void mapChildren(UnaryOperator<Expression> f) {
+        this.obj = f.apply(this.obj);
+        this.e = f.apply(this.e);
     }
 }
 
+/**
+ * The specializations of BinOpExpr for int operands.  Each operator has
+ * its own class, whose evaluate methods do nothing but evaluate the
+ * operands as ints and compute; see BinOpExpr for when they are used.
+ * Division and remainder, which have more cases, stay generic.
+ *
+ * Anything else, such as an operand that is not int-like or a result
+ * that overflows, makes the node revert to a generic BinOpExpr, which
+ * finishes the operation with the operands already evaluated.
+ */
+abstract class IntOpExpr extends BinOpExpr {
+    IntOpExpr(Op op, Expression e1, Expression e2) {
+        super(op, e1, e2);
+    }
+
+    /**
+     * The specialized node for op, or null if op has none.
+     */
+    static BinOpExpr of(Op op, Expression e1, Expression e2) {
+        switch(op) {
+            case ADD:
+                return new IntAddExpr(e1, e2);
+            case SUBTRACT:
+                return new IntSubExpr(e1, e2);
+            case MULTIPLY:
+                return new IntMulExpr(e1, e2);
+            case LT:
+                return new IntLtExpr(e1, e2);
+            case LE:
+                return new IntLeExpr(e1, e2);
+            case GT:
+                return new IntGtExpr(e1, e2);
+            case GE:
+                return new IntGeExpr(e1, e2);
+            case EQ:
+                return new IntEqExpr(e1, e2);
+            default:
+                return null;
+        }
+    }
+
+    final int generalizeInt(Environment env, Value v1, Value v2) {
+        Value v = generalize(env, v1, v2);
+        if (v instanceof IntVal) return ((IntVal) v).toInt();
+        throw new UnexpectedResultException(v);
+    }
+
+    final boolean generalizeBoolean(Environment env, Value v1, Value v2) {
+        return ((BoolVal) generalize(env, v1, v2)).toBoolean();
+    }
+}
+
+/**
+ * Arithmetic on ints.
+ */
+abstract class IntArithmeticExpr extends IntOpExpr {
+    IntArithmeticExpr(Op op, Expression e1, Expression e2) {
+        super(op, e1, e2);
+    }
+    public Value evaluate(Environment env) {
+        try {
+            return IntVal.valueOf(evaluateInt(env));
+        } catch (UnexpectedResultException e) {
+            return e.getResult();
+        }
+    }
+    public abstract int evaluateInt(Environment env);
+}
+
+final class IntAddExpr extends IntArithmeticExpr {
+    IntAddExpr(Expression e1, Expression e2) {
+        super(Op.ADD, e1, e2);
+    }
+    public int evaluateInt(Environment env) {
+        int val1;
+        try {
+            val1 = getLeft().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeInt(env, e.getResult(), getRight().evaluate(env));
+        }
+        int val2;
+        try {
+            val2 = getRight().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeInt(env, IntVal.valueOf(val1), e.getResult());
+        }
+        int res = val1 + val2;
+        if (((val1 ^ res) & (val2 ^ res)) < 0) {
+            return generalizeInt(env, IntVal.valueOf(val1), IntVal.valueOf(val2));
+        }
+        return res;
+    }
+}
+
+final class IntSubExpr extends IntArithmeticExpr {
+    IntSubExpr(Expression e1, Expression e2) {
+        super(Op.SUBTRACT, e1, e2);
+    }
+    public int evaluateInt(Environment env) {
+        int val1;
+        try {
+            val1 = getLeft().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeInt(env, e.getResult(), getRight().evaluate(env));
+        }
+        int val2;
+        try {
+            val2 = getRight().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeInt(env, IntVal.valueOf(val1), e.getResult());
+        }
+        int res = val1 - val2;
+        if (((val1 ^ val2) & (val1 ^ res)) < 0) {
+            return generalizeInt(env, IntVal.valueOf(val1), IntVal.valueOf(val2));
+        }
+        return res;
+    }
+}
+
+final class IntMulExpr extends IntArithmeticExpr {
+    IntMulExpr(Expression e1, Expression e2) {
+        super(Op.MULTIPLY, e1, e2);
+    }
+    public int evaluateInt(Environment env) {
+        int val1;
+        try {
+            val1 = getLeft().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeInt(env, e.getResult(), getRight().evaluate(env));
+        }
+        int val2;
+        try {
+            val2 = getRight().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeInt(env, IntVal.valueOf(val1), e.getResult());
+        }
+        long res = (long) val1 * val2;
+        if ((int) res != res) {
+            return generalizeInt(env, IntVal.valueOf(val1), IntVal.valueOf(val2));
+        }
+        return (int) res;
+    }
+}
+
+/**
+ * Comparisons of ints.
+ */
+abstract class IntComparisonExpr extends IntOpExpr {
+    IntComparisonExpr(Op op, Expression e1, Expression e2) {
+        super(op, e1, e2);
+    }
+    public Value evaluate(Environment env) {
+        return BoolVal.valueOf(evaluateBoolean(env));
+    }
+    public int evaluateInt(Environment env) {
+        // A comparison used as a number
+        return evaluateBoolean(env) ? 1 : 0;
+    }
+    public abstract boolean evaluateBoolean(Environment env);
+}
+
+final class IntLtExpr extends IntComparisonExpr {
+    IntLtExpr(Expression e1, Expression e2) {
+        super(Op.LT, e1, e2);
+    }
+    public boolean evaluateBoolean(Environment env) {
+        int val1;
+        try {
+            val1 = getLeft().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeBoolean(env, e.getResult(), getRight().evaluate(env));
+        }
+        try {
+            return val1 < getRight().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeBoolean(env, IntVal.valueOf(val1), e.getResult());
+        }
+    }
+}
+
+final class IntLeExpr extends IntComparisonExpr {
+    IntLeExpr(Expression e1, Expression e2) {
+        super(Op.LE, e1, e2);
+    }
+    public boolean evaluateBoolean(Environment env) {
+        int val1;
+        try {
+            val1 = getLeft().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeBoolean(env, e.getResult(), getRight().evaluate(env));
+        }
+        try {
+            return val1 <= getRight().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeBoolean(env, IntVal.valueOf(val1), e.getResult());
+        }
+    }
+}
+
+final class IntGtExpr extends IntComparisonExpr {
+    IntGtExpr(Expression e1, Expression e2) {
+        super(Op.GT, e1, e2);
+    }
+    public boolean evaluateBoolean(Environment env) {
+        int val1;
+        try {
+            val1 = getLeft().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeBoolean(env, e.getResult(), getRight().evaluate(env));
+        }
+        try {
+            return val1 > getRight().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeBoolean(env, IntVal.valueOf(val1), e.getResult());
+        }
+    }
+}
+
+final class IntGeExpr extends IntComparisonExpr {
+    IntGeExpr(Expression e1, Expression e2) {
+        super(Op.GE, e1, e2);
+    }
+    public boolean evaluateBoolean(Environment env) {
+        int val1;
+        try {
+            val1 = getLeft().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeBoolean(env, e.getResult(), getRight().evaluate(env));
+        }
+        try {
+            return val1 >= getRight().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeBoolean(env, IntVal.valueOf(val1), e.getResult());
+        }
+    }
+}
+
+final class IntEqExpr extends IntComparisonExpr {
+    IntEqExpr(Expression e1, Expression e2) {
+        super(Op.EQ, e1, e2);
+    }
+    public boolean evaluateBoolean(Environment env) {
+        int val1;
+        try {
+            val1 = getLeft().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeBoolean(env, e.getResult(), getRight().evaluate(env));
+        }
+        try {
+            return val1 == getRight().evaluateInt(env);
+        } catch (UnexpectedResultException e) {
+            return generalizeBoolean(env, IntVal.valueOf(val1), e.getResult());
+        }
+    }
+}
+
+/**
+ * A superinstruction: one node doing the work of a common pattern of
+ * several (see Superinstructions).  Its parts are VarExprs and
+ * AssignExprs held by their own types, so that the calls to them are
+ * not virtual dispatches, and ints are not boxed in between.
+ */
+interface FusedExpr extends Expression {
+    /**
+     * The expression this node stands for, for engines that do not
+     * know superinstructions.
+     */
+    Expression getUnfused();
+}
+
+/**
+ * x = x + c, x = x - c or x = c + x, for an int c.
+ * The operator and the side of the constant are kept for values of x
+ * that are not ints, such as strings, where they matter.
+ */
+final class IncrementExpr implements FusedExpr {
+    private final AssignExpr target;
+    private final VarExpr var;
+    private final Op op;
+    private final int constant;
+    private final boolean constantFirst;
+    public IncrementExpr(AssignExpr target, VarExpr var, Op op, int constant,
+            boolean constantFirst) {
+        this.target = target;
+        this.var = var;
+        this.op = op;
+        this.constant = constant;
+        this.constantFirst = constantFirst;
+    }
+    public Expression getUnfused() {
+        return this.target;
+    }
+    public Value evaluate(Environment env) {
+        Value v = var.evaluate(env);
+        Value res;
+        if (v instanceof IntVal) {
+            long x = ((IntVal) v).toInt();
+            res = Value.ofLong(op == Op.ADD ? x + constant : x - constant);
+        } else if (constantFirst) {
+            res = BinOpExpr.apply(op, IntVal.valueOf(constant), v);
+        } else {
+            res = BinOpExpr.apply(op, v, IntVal.valueOf(constant));
+        }
+        target.assign(env, res);
+        return res;
+    }
+}
+
+/**
+ * x = y op z, where y and z are variables and op is arithmetic.
+ */
+final class AssignOpExpr implements FusedExpr {
+    private final AssignExpr target;
+    private final Op op;
+    private final VarExpr var1;
+    private final VarExpr var2;
+    public AssignOpExpr(AssignExpr target, Op op, VarExpr var1, VarExpr var2) {
+        this.target = target;
+        this.op = op;
+        this.var1 = var1;
+        this.var2 = var2;
+    }
+    public Expression getUnfused() {
+        return this.target;
+    }
+    public Value evaluate(Environment env) {
+        Value v1 = var1.evaluate(env);
+        Value v2 = var2.evaluate(env);
+        Value res;
+        if (v1 instanceof IntVal && v2 instanceof IntVal) {
+            res = arithmetic(((IntVal) v1).toInt(), ((IntVal) v2).toInt());
+        } else {
+            res = BinOpExpr.apply(op, v1, v2);
+        }
+        target.assign(env, res);
+        return res;
+    }
+    private Value arithmetic(int val1, int val2) {
+        // An int operation on two ints cannot overflow a long
+        switch(op) {
+            case ADD:
+                return Value.ofLong((long) val1+val2);
+            case SUBTRACT:
+                return Value.ofLong((long) val1-val2);
+            case MULTIPLY:
+                return Value.ofLong((long) val1*val2);
+            case DIVIDE:
+                return Value.ofLong((long) val1/val2);
+            default:
+                return IntVal.valueOf(val1%val2);
+        }
+    }
+}
+
+/**
+ * x op c, where op is a comparison and c an int.
+ */
+final class CompareConstExpr implements FusedExpr {
+    private final BinOpExpr unfused;
+    private final Op op;
+    private final VarExpr var;
+    private final int constant;
+    public CompareConstExpr(BinOpExpr unfused, VarExpr var, int constant) {
+        this.unfused = unfused;
+        this.op = unfused.getOp();
+        this.var = var;
+        this.constant = constant;
+    }
+    public Expression getUnfused() {
+        return this.unfused;
+    }
+    public Value evaluate(Environment env) {
+        return BoolVal.valueOf(evaluateBoolean(env));
+    }
+    public int evaluateInt(Environment env) {
+        // A comparison used as a number
+        return evaluateBoolean(env) ? 1 : 0;
+    }
+    public boolean evaluateBoolean(Environment env) {
+        Value v = var.evaluate(env);
+        if (v instanceof IntVal) {
+            return BinOpExpr.compare(op, ((IntVal) v).toInt(), constant);
+        }
+        return ((BoolVal) BinOpExpr.apply(op, v, IntVal.valueOf(constant))).toBoolean();
+    }
+}
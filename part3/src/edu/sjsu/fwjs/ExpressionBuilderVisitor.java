@@ -1,5 +1,6 @@
 package edu.sjsu.fwjs;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,11 +13,12 @@ public class ExpressionBuilderVisitor extends FeatherweightJavaScriptBaseVisitor
     @Override
     public Expression visitProg(FeatherweightJavaScriptParser.ProgContext ctx) {
         List<Expression> stmts = new ArrayList<Expression>();
-        for (int i=0; i<ctx.stat().size(); i++) {
-            Expression exp = visit(ctx.stat(i));
+        // ctx.stat(i) searches the children, so it is quadratic for long programs
+        for (StatContext stat : ctx.stat()) {
+            Expression exp = visit(stat);
             if (exp != null) stmts.add(exp);
         }
-        return listToSeqExp(stmts);
+        return listToBlock(stmts);
     }
     @Override
     public Expression visitPrint(FeatherweightJavaScriptParser.PrintContext ctx) {
@@ -26,7 +28,7 @@ public class ExpressionBuilderVisitor extends FeatherweightJavaScriptBaseVisitor
     
     @Override
     public Expression visitVarDecl(FeatherweightJavaScriptParser.VarDeclContext ctx) {
-        String varName = ctx.ID().getText();
+        Symbol varName = Symbol.of(ctx.ID().getText());
         Expression exp = visit(ctx.expr());
         return new VarDeclExpr(varName, exp);
     }
@@ -47,7 +49,7 @@ public class ExpressionBuilderVisitor extends FeatherweightJavaScriptBaseVisitor
 
     @Override
     public Expression visitFuncApp(FeatherweightJavaScriptParser.FuncAppContext ctx) {
-        Expression func = new VarExpr(ctx.ID().getText()); // Treat function name as variable reference
+        Expression func = new VarExpr(Symbol.of(ctx.ID().getText())); // Treat function name as variable reference
         List<Expression> args = new ArrayList<>(); // Initialize an empty ArrayList
         if (ctx.args() != null) {
           List<ExprContext> contexts = ctx.args().expr();
@@ -59,10 +61,66 @@ public class ExpressionBuilderVisitor extends FeatherweightJavaScriptBaseVisitor
         return new FunctionAppExpr(func, args);
     }
 
+    @Override
+    public Expression visitListLit(FeatherweightJavaScriptParser.ListLitContext ctx) {
+        List<Expression> elems = new ArrayList<>();
+        if (ctx.args() != null) {
+            for (ExprContext elem : ctx.args().expr()) {
+                elems.add(visit(elem));
+            }
+        }
+        return new ListExpr(elems);
+    }
+
+    @Override
+    public Expression visitArrayLit(FeatherweightJavaScriptParser.ArrayLitContext ctx) {
+        List<Expression> elems = new ArrayList<>();
+        if (ctx.args() != null) {
+            for (ExprContext elem : ctx.args().expr()) {
+                elems.add(visit(elem));
+            }
+        }
+        return new ArrayExpr(elems);
+    }
+
+    @Override
+    public Expression visitIndex(FeatherweightJavaScriptParser.IndexContext ctx) {
+        Expression array = new VarExpr(Symbol.of(ctx.ID().getText()));
+        return new IndexExpr(array, visit(ctx.expr()));
+    }
+
+    @Override
+    public Expression visitIndexAssign(FeatherweightJavaScriptParser.IndexAssignContext ctx) {
+        Expression array = new VarExpr(Symbol.of(ctx.ID().getText()));
+        return new IndexAssignExpr(array, visit(ctx.expr(0)), visit(ctx.expr(1)));
+    }
+
+    @Override
+    public Expression visitObjectLit(FeatherweightJavaScriptParser.ObjectLitContext ctx) {
+        List<Symbol> names = new ArrayList<>();
+        List<Expression> values = new ArrayList<>();
+        for (PropertyContext prop : ctx.property()) {
+            names.add(Symbol.of(prop.ID().getText()));
+            values.add(visit(prop.expr()));
+        }
+        return new ObjectExpr(names, values);
+    }
+
+    @Override
+    public Expression visitProp(FeatherweightJavaScriptParser.PropContext ctx) {
+        return new PropExpr(visit(ctx.expr()), Symbol.of(ctx.ID().getText()));
+    }
+
+    @Override
+    public Expression visitPropAssign(FeatherweightJavaScriptParser.PropAssignContext ctx) {
+        return new PropAssignExpr(visit(ctx.expr(0)), Symbol.of(ctx.ID().getText()),
+                visit(ctx.expr(1)));
+    }
+
     @Override
     public Expression visitBool(FeatherweightJavaScriptParser.BoolContext ctx) {
         boolean val = Boolean.parseBoolean(ctx.BOOL().getText());
-        return new ValueExpr(new BoolVal(val));
+        return new ValueExpr(BoolVal.valueOf(val));
     }
   
     @Override
@@ -90,7 +148,7 @@ public class ExpressionBuilderVisitor extends FeatherweightJavaScriptBaseVisitor
 
     @Override
     public Expression visitEmptyStmt(FeatherweightJavaScriptParser.EmptyStmtContext ctx) {
-        return new ValueExpr(new NullVal());
+        return new ValueExpr(NullVal.NULL);
     }
 
     @Override
@@ -115,8 +173,43 @@ public class ExpressionBuilderVisitor extends FeatherweightJavaScriptBaseVisitor
 
     @Override
     public Expression visitInt(FeatherweightJavaScriptParser.IntContext ctx) {
-        int val = Integer.valueOf(ctx.INT().getText());
-        return new ValueExpr(new IntVal(val));
+        // Literals too large for an int are LongVals or BigIntVals
+        BigInteger val = new BigInteger(ctx.INT().getText());
+        return new ValueExpr(Value.ofBigInteger(val));
+    }
+
+    @Override
+    public Expression visitString(FeatherweightJavaScriptParser.StringContext ctx) {
+        String text = ctx.STRING().getText();
+        return new ValueExpr(StrVal.literal(unescape(text.substring(1, text.length() - 1))));
+    }
+
+    /**
+     * Replaces the escapes \n, \t, \r, \" and \\ in a string literal.
+     * Any other escaped character stands for itself.
+     */
+    private static String unescape(String s) {
+        if (s.indexOf('\\') < 0) return s;
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < s.length()) {
+                c = s.charAt(++i);
+                switch (c) {
+                    case 'n': c = '\n'; break;
+                    case 't': c = '\t'; break;
+                    case 'r': c = '\r'; break;
+                    default: break;
+                }
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public Expression visitDouble(FeatherweightJavaScriptParser.DoubleContext ctx) {
+        return new ValueExpr(new DoubleVal(Double.parseDouble(ctx.DOUBLE().getText())));
     }
 
     @Override
@@ -129,9 +222,9 @@ public class ExpressionBuilderVisitor extends FeatherweightJavaScriptBaseVisitor
         List<Expression> stmts = new ArrayList<Expression>();
         for (int i=1; i<ctx.getChildCount()-1; i++) {
             Expression exp = visit(ctx.getChild(i));
-            stmts.add(exp);
+            if (exp != null) stmts.add(exp);
         }
-        return listToSeqExp(stmts);
+        return listToBlock(stmts);
     }
 
     @Override
@@ -143,18 +236,18 @@ public class ExpressionBuilderVisitor extends FeatherweightJavaScriptBaseVisitor
 
     @Override 
     public Expression visitVarRef(FeatherweightJavaScriptParser.VarRefContext ctx) {
-        return new VarExpr(String.valueOf(ctx.ID().getText()));
+        return new VarExpr(Symbol.of(ctx.ID().getText()));
     }
 
     @Override 
     public Expression visitVarAssign(FeatherweightJavaScriptParser.VarAssignContext ctx) {
         // varName, expression
-         return new AssignExpr(ctx.ID().getText(), visit(ctx.expr()));
+         return new AssignExpr(Symbol.of(ctx.ID().getText()), visit(ctx.expr()));
     }
 
     @Override 
     public Expression visitNull(FeatherweightJavaScriptParser.NullContext ctx) {
-         return new ValueExpr(new NullVal());
+         return new ValueExpr(NullVal.NULL);
     }
 
     @Override 
@@ -182,16 +275,13 @@ public class ExpressionBuilderVisitor extends FeatherweightJavaScriptBaseVisitor
 
 
     /**
-     * Converts a list of expressions to one sequence expression,
+     * Converts a list of expressions to one block expression,
      * if the list contained more than one expression.
      */
-    private Expression listToSeqExp(List<Expression> stmts) {
+    private Expression listToBlock(List<Expression> stmts) {
         if (stmts.isEmpty()) return null;
-        Expression exp = stmts.get(0);
-        for (int i=1; i<stmts.size(); i++) {
-            exp = new SeqExpr(exp, stmts.get(i));
-        }
-        return exp;
+        if (stmts.size() == 1) return stmts.get(0);
+        return new BlockExpr(stmts.toArray(new Expression[stmts.size()]));
     }
 
     @Override
@@ -0,0 +1,55 @@
+package edu.sjsu.fwjs;
+
+import java.util.Arrays;
+
+/**
+ * A per-thread stack of reusable function frames.
+ *
+ * Closures of resolved functions hold cells rather than frames (see Scope),
+ * so nothing can refer to a resolved frame once its call returns.
+ * Calls therefore borrow a frame from the stack of the calling thread and
+ * hand it back on return.  Only functions whose locals are captured by a
+ * nested closure still allocate per call: the cells of those locals,
+ * which outlive the call.
+ */
+class FrameStack {
+    private static final ThreadLocal<FrameStack> CURRENT =
+        ThreadLocal.withInitial(FrameStack::new);
+
+    private Environment[] frames = new Environment[16];
+    private int top;
+
+    /**
+     * The frame stack of the calling thread.
+     */
+    public static FrameStack current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Borrows a frame for a call of a function with the given scope.
+     * Every push must be matched by a pop of the same frame.
+     */
+    public Environment push(Environment globalEnv, Scope scope, Cell[] free) {
+        if (top == frames.length) {
+            frames = Arrays.copyOf(frames, top * 2);
+        }
+        Environment frame = frames[top];
+        if (frame == null) {
+            frame = new Environment(this);
+            frames[top] = frame;
+        }
+        top++;
+        frame.enter(globalEnv, scope, free);
+        return frame;
+    }
+
+    /**
+     * Returns the frame on top of the stack, clearing it so
+     * it does not keep the values of the call alive.
+     */
+    public void pop(Environment frame) {
+        frame.exit();
+        top--;
+    }
+}
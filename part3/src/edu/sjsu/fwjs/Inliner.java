@@ -0,0 +1,210 @@
+package edu.sjsu.fwjs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inlines calls to small functions, such as isEmpty(lst) or ident(x),
+ * so that they do not pay for a frame and the binding of the params.
+ * Runs after the ConstantFolder and before the Resolver.
+ *
+ * A function is inlined if it is declared once, by a var of the global
+ * scope that is never assigned, and its body has at most MAX_SIZE nodes
+ * and declares no variables or functions.  A call to it becomes an
+ * InlinedCallExpr holding a copy of the body, with each param renamed
+ * to a new local of the calling function (so only calls inside a
+ * function are inlined) and a guard for the variable being assigned
+ * anyway, by another program sharing the globals.
+ *
+ * The copies are made from the bodies as they were before any call was
+ * inlined, so a function is inlined one level deep: a recursive
+ * function calls itself as written.  A call is left alone if the
+ * calling function has a variable of the same name as the function or
+ * as one of the globals the function uses.
+ */
+class Inliner {
+    private static final int MAX_SIZE = 16;
+
+    // The functions that can be inlined, the copies of their bodies, and
+    // the globals they use
+    private final Map<Symbol,FunctionDeclExpr> callees = new HashMap<Symbol,FunctionDeclExpr>();
+    private final Map<Symbol,Expression> templates = new HashMap<Symbol,Expression>();
+    private final Map<Symbol,Set<Symbol>> freeNames = new HashMap<Symbol,Set<Symbol>>();
+    private int temps = 0;
+
+    private Inliner() {}
+
+    public static Expression inline(Expression prog) {
+        if (prog == null) return null;
+        List<Expression> stmts = new ArrayList<Expression>();
+        ScopeInfo.statements(prog, stmts);
+        ScopeInfo globals = ScopeInfo.of(stmts);
+
+        Inliner in = new Inliner();
+        for (int i = 0; i < stmts.size(); i++) {
+            if (!(stmts.get(i) instanceof VarDeclExpr)) continue;
+            VarDeclExpr vde = (VarDeclExpr) stmts.get(i);
+            Symbol name = vde.getName();
+            if (vde.getExpression() instanceof FunctionDeclExpr
+                    && globals.declaredAt.get(name) == i && !globals.assigned.contains(name)) {
+                in.addCallee(name, (FunctionDeclExpr) vde.getExpression());
+            }
+        }
+        if (in.callees.isEmpty()) return prog;
+        return in.visit(prog, null);
+    }
+
+    private void addCallee(Symbol name, FunctionDeclExpr fde) {
+        Expression body = fde.getBody();
+        if (body == null || size(body) > MAX_SIZE) return;
+        Expression template = copy(body, new HashMap<Symbol,Symbol>());
+        if (template == null) return;
+        Set<Symbol> free = new HashSet<Symbol>();
+        namesOf(template, free);
+        free.removeAll(fde.getParams());
+        callees.put(name, fde);
+        templates.put(name, template);
+        freeNames.put(name, free);
+    }
+
+    /**
+     * Inlines the calls in exp, given the variables of the enclosing
+     * functions, or null in the global scope.
+     */
+    private Expression visit(Expression exp, Set<Symbol> locals) {
+        if (exp == null) {
+            return null;
+        } else if (exp instanceof FunctionDeclExpr) {
+            FunctionDeclExpr fde = (FunctionDeclExpr) exp;
+            Set<Symbol> inner = locals == null ? new HashSet<Symbol>() : new HashSet<Symbol>(locals);
+            inner.addAll(fde.getParams());
+            inner.addAll(ScopeInfo.localsOf(fde.getBody()));
+            fde.mapChildren(e -> visit(e, inner));
+            return fde;
+        }
+        exp.mapChildren(e -> visit(e, locals));
+        if (locals != null && exp instanceof FunctionAppExpr) {
+            Expression inlined = inlineCall((FunctionAppExpr) exp, locals);
+            if (inlined != null) return inlined;
+        }
+        return exp;
+    }
+
+    private Expression inlineCall(FunctionAppExpr call, Set<Symbol> locals) {
+        if (!(call.getFunction() instanceof VarExpr)) return null;
+        Symbol name = ((VarExpr) call.getFunction()).getName();
+        FunctionDeclExpr callee = callees.get(name);
+        if (callee == null || locals.contains(name)
+                || call.getArgs().size() != callee.getParams().size()) {
+            return null;
+        }
+        for (Symbol free : freeNames.get(name)) {
+            if (locals.contains(free)) return null;
+        }
+
+        List<Symbol> params = callee.getParams();
+        Map<Symbol,Symbol> renamed = new HashMap<Symbol,Symbol>();
+        AssignExpr[] temps = new AssignExpr[params.size()];
+        for (int i = 0; i < temps.length; i++) {
+            Symbol temp = Symbol.of(params.get(i) + "$" + this.temps++);
+            renamed.put(params.get(i), temp);
+            temps[i] = new AssignExpr(temp, null);
+        }
+        return new InlinedCallExpr(call, callee, temps, copy(templates.get(name), renamed));
+    }
+
+    /**
+     * Copies exp, renaming its variables.  Returns null if exp has a node
+     * that cannot be inlined.
+     */
+    private static Expression copy(Expression exp, Map<Symbol,Symbol> renamed) {
+        if (exp == null) {
+            return null;
+        } else if (exp instanceof ValueExpr) {
+            return new ValueExpr(((ValueExpr) exp).getValue());
+        } else if (exp instanceof VarExpr) {
+            Symbol name = ((VarExpr) exp).getName();
+            return new VarExpr(renamed.getOrDefault(name, name));
+        } else if (exp instanceof AssignExpr) {
+            AssignExpr ae = (AssignExpr) exp;
+            Expression e = copy(ae.getExpression(), renamed);
+            return e == null ? null : new AssignExpr(renamed.getOrDefault(ae.getName(), ae.getName()), e);
+        } else if (exp instanceof BinOpExpr) {
+            BinOpExpr boe = (BinOpExpr) exp;
+            Expression left = copy(boe.getLeft(), renamed);
+            Expression right = copy(boe.getRight(), renamed);
+            return left == null || right == null ? null : new BinOpExpr(boe.getOp(), left, right);
+        } else if (exp instanceof IfExpr) {
+            IfExpr ie = (IfExpr) exp;
+            Expression cond = copy(ie.getCondition(), renamed);
+            Expression thn = copy(ie.getThen(), renamed);
+            Expression els = copy(ie.getElse(), renamed);
+            if (cond == null || thn == null || (els == null && ie.getElse() != null)) return null;
+            return new IfExpr(cond, thn, els);
+        } else if (exp instanceof PrintExpr) {
+            Expression e = copy(((PrintExpr) exp).getExpression(), renamed);
+            return e == null ? null : new PrintExpr(e);
+        } else if (exp instanceof BlockExpr) {
+            Expression[] stmts = ((BlockExpr) exp).getStatements();
+            Expression[] copies = new Expression[stmts.length];
+            for (int i = 0; i < stmts.length; i++) {
+                copies[i] = copy(stmts[i], renamed);
+                if (copies[i] == null) return null;
+            }
+            return new BlockExpr(copies);
+        } else if (exp instanceof FunctionAppExpr) {
+            FunctionAppExpr fae = (FunctionAppExpr) exp;
+            Expression f = copy(fae.getFunction(), renamed);
+            List<Expression> args = copyAll(fae.getArgs(), renamed);
+            return f == null || args == null ? null : new FunctionAppExpr(f, args);
+        } else if (exp instanceof ListExpr) {
+            List<Expression> elems = copyAll(((ListExpr) exp).getElements(), renamed);
+            return elems == null ? null : new ListExpr(elems);
+        } else if (exp instanceof IndexExpr) {
+            IndexExpr ie = (IndexExpr) exp;
+            Expression array = copy(ie.getArray(), renamed);
+            Expression index = copy(ie.getIndex(), renamed);
+            return array == null || index == null ? null : new IndexExpr(array, index);
+        } else if (exp instanceof PropExpr) {
+            PropExpr pe = (PropExpr) exp;
+            Expression obj = copy(pe.getObject(), renamed);
+            return obj == null ? null : new PropExpr(obj, pe.getName());
+        }
+        return null;
+    }
+
+    private static List<Expression> copyAll(List<Expression> exps, Map<Symbol,Symbol> renamed) {
+        List<Expression> copies = new ArrayList<Expression>();
+        for (Expression e : exps) {
+            Expression c = copy(e, renamed);
+            if (c == null) return null;
+            copies.add(c);
+        }
+        return copies;
+    }
+
+    private static int size(Expression exp) {
+        if (exp == null) return 0;
+        int[] n = { 1 };
+        exp.forEachChild(e -> n[0] += size(e));
+        return n[0];
+    }
+
+    /**
+     * Adds the variables exp uses or assigns to names.
+     */
+    private static void namesOf(Expression exp, Set<Symbol> names) {
+        if (exp == null) {
+            return;
+        } else if (exp instanceof VarExpr) {
+            names.add(((VarExpr) exp).getName());
+        } else if (exp instanceof AssignExpr) {
+            names.add(((AssignExpr) exp).getName());
+        }
+        exp.forEachChild(e -> namesOf(e, names));
+    }
+}
@@ -9,23 +9,68 @@ import edu.sjsu.fwjs.parser.FeatherweightJavaScriptParser;
 import java.io.FileInputStream;
 import java.io.InputStream;
 
+/**
+ * Runs a FWJS program, read from the file given as the last argument
+ * or from standard input.
+ *
+ * Options:
+ *   --engine=value   evaluate the Expression tree (the default)
+ *   --engine=tagged  run on the TaggedEngine, which keeps ints,
+ *                    booleans and null unboxed
+ */
 public class Interpreter {
 
     public static void main(String[] args) throws Exception {
         String inputFile = null;
-        if (args.length>0) inputFile = args[0];
+        String engine = "value";
+        for (String arg : args) {
+            if (arg.startsWith("--engine=")) engine = arg.substring("--engine=".length());
+            else inputFile = arg;
+        }
         InputStream is = System.in;
         if (inputFile!=null) is = new FileInputStream(inputFile);
 
-        CharStream stream = CharStreams.fromStream(is);
+        Expression prog = parse(CharStreams.fromStream(is), true);
+        if (engine.equals("tagged")) {
+            try {
+                TaggedEngine.run(prog);
+                return;
+            } catch (UnsupportedOperationException e) {
+                // Nothing has run yet, so the program can start over
+                System.err.println(e.getMessage() + "; using the value engine");
+            }
+        } else if (!engine.equals("value")) {
+            throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+        prog.evaluate(new Environment());
+    }
+
+    /**
+     * Parses a program and resolves its variables, ready to evaluate
+     * in any global environment.
+     */
+    static Expression parse(CharStream stream) {
+        return parse(stream, false);
+    }
+
+    /**
+     * Parses a program, folds its constants, hoists invariant code out
+     * of loops, inlines calls to small functions, resolves its variables
+     * and fuses common patterns into superinstructions.
+     * If wholeProgram is set, the program must run on its own in a new
+     * global environment, which lets more of its variables be folded
+     * and more of its calls be hoisted (see ConstantFolder and LoopHoister).
+     */
+    static Expression parse(CharStream stream, boolean wholeProgram) {
         FeatherweightJavaScriptLexer lexer = new FeatherweightJavaScriptLexer(stream);
         CommonTokenStream tokens = new CommonTokenStream(lexer);
         FeatherweightJavaScriptParser parser = new FeatherweightJavaScriptParser(tokens);
         ParseTree tree = parser.prog(); // parse
 
         ExpressionBuilderVisitor builder = new ExpressionBuilderVisitor();
-        Expression prog = builder.visit(tree);
-        prog.evaluate(new Environment());
+        Expression prog = ConstantFolder.fold(builder.visit(tree), wholeProgram);
+        prog = Inliner.inline(LoopHoister.hoist(prog, wholeProgram));
+        return Superinstructions.fuse(Resolver.resolve(prog));
     }
 
 }
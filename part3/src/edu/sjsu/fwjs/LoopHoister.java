@@ -0,0 +1,230 @@
+package edu.sjsu.fwjs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hoists the computations that give the same value at every iteration
+ * of a while loop out of it.  Runs after the ConstantFolder and before
+ * the Inliner.
+ *
+ * An expression is invariant if it is an operator or a call to a pure
+ * function, whose operands are literals, invariant expressions, or
+ * locals of the function that the loop does not assign (nor does any
+ * nested function, which might be called from the loop).  Each largest
+ * invariant expression becomes an InvariantExpr, whose value is kept in
+ * a new local of the function, reset by a pre-header in front of the
+ * loop, so only loops inside functions are hoisted from.
+ *
+ * A pure function is a global declared once and never assigned, whose
+ * body only uses its params, operators, ifs, and calls to pure functions;
+ * head, tail, isEmpty and length are pure too, unless the program
+ * declares its own.  Calls are only hoisted in a whole program (see
+ * ConstantFolder), since another program could assign the functions.
+ */
+class LoopHoister {
+    private static final List<String> PURE_BUILTINS =
+        Arrays.asList("head", "tail", "isEmpty", "length");
+
+    private final Set<Symbol> pure = new HashSet<Symbol>();
+    private int temps = 0;
+
+    private LoopHoister() {}
+
+    public static Expression hoist(Expression prog, boolean wholeProgram) {
+        if (prog == null) return null;
+        LoopHoister h = new LoopHoister();
+        if (wholeProgram) h.findPureFunctions(prog);
+        return h.visit(prog, null, new HashSet<Symbol>(), null);
+    }
+
+    private void findPureFunctions(Expression prog) {
+        List<Expression> stmts = new ArrayList<Expression>();
+        ScopeInfo.statements(prog, stmts);
+        ScopeInfo globals = ScopeInfo.of(stmts);
+
+        for (String name : PURE_BUILTINS) {
+            Symbol sym = Symbol.of(name);
+            if (!globals.declaredAt.containsKey(sym) && !globals.assigned.contains(sym)) {
+                pure.add(sym);
+            }
+        }
+        Map<Symbol,FunctionDeclExpr> functions = new HashMap<Symbol,FunctionDeclExpr>();
+        for (int i = 0; i < stmts.size(); i++) {
+            if (!(stmts.get(i) instanceof VarDeclExpr)) continue;
+            VarDeclExpr vde = (VarDeclExpr) stmts.get(i);
+            Symbol name = vde.getName();
+            if (vde.getExpression() instanceof FunctionDeclExpr
+                    && globals.declaredAt.get(name) == i && !globals.assigned.contains(name)) {
+                functions.put(name, (FunctionDeclExpr) vde.getExpression());
+            }
+        }
+
+        // Functions are taken to be pure until they call one that is not
+        pure.addAll(functions.keySet());
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<Symbol,FunctionDeclExpr> e : functions.entrySet()) {
+                FunctionDeclExpr fde = e.getValue();
+                if (pure.contains(e.getKey()) && !isPure(fde.getBody(), fde.getParams())) {
+                    pure.remove(e.getKey());
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the body of a function only computes a value from params.
+     */
+    private boolean isPure(Expression exp, List<Symbol> params) {
+        if (exp == null || exp instanceof ValueExpr) {
+            return true;
+        } else if (exp instanceof VarExpr) {
+            return params.contains(((VarExpr) exp).getName());
+        } else if (exp instanceof FunctionAppExpr) {
+            Expression f = ((FunctionAppExpr) exp).getFunction();
+            if (!(f instanceof VarExpr)) return false;
+            Symbol name = ((VarExpr) f).getName();
+            if (params.contains(name) || !pure.contains(name)) return false;
+        } else if (!(exp instanceof BinOpExpr || exp instanceof IfExpr
+                || exp instanceof BlockExpr || exp instanceof SeqExpr)) {
+            return false;
+        }
+        boolean[] all = { true };
+        exp.forEachChild(e -> all[0] &= isPure(e, params));
+        return all[0];
+    }
+
+    /**
+     * Hoists from the loops in exp.  Vars are the locals of the current
+     * function that only it assigns, or null in the global scope; locals
+     * are the variables of all the enclosing functions.  The declarations
+     * of the new locals are added to decls, which the function runs on
+     * entry: a pre-header may run many times, in an enclosing loop, but
+     * a variable may only be declared once.
+     */
+    private Expression visit(Expression exp, Set<Symbol> vars, Set<Symbol> locals,
+            List<Expression> decls) {
+        if (exp == null) {
+            return null;
+        } else if (exp instanceof FunctionDeclExpr) {
+            FunctionDeclExpr fde = (FunctionDeclExpr) exp;
+            Set<Symbol> own = new HashSet<Symbol>(fde.getParams());
+            own.addAll(ScopeInfo.localsOf(fde.getBody()));
+            Set<Symbol> inner = new HashSet<Symbol>(locals);
+            inner.addAll(own);
+            Set<Symbol> nested = new HashSet<Symbol>();
+            assignedInFunctions(fde.getBody(), nested);
+            own.removeAll(nested);
+            List<Expression> entry = new ArrayList<Expression>();
+            fde.mapChildren(e -> visit(e, own, inner, entry));
+            if (!entry.isEmpty()) {
+                fde.mapChildren(body -> {
+                    if (body instanceof BlockExpr) {
+                        entry.addAll(Arrays.asList(((BlockExpr) body).getStatements()));
+                    } else {
+                        entry.add(body);
+                    }
+                    return new BlockExpr(entry.toArray(new Expression[entry.size()]));
+                });
+            }
+            return fde;
+        } else if (exp instanceof WhileExpr && vars != null) {
+            WhileExpr we = (WhileExpr) exp;
+            Set<Symbol> invariant = new HashSet<Symbol>(vars);
+            Set<Symbol> assigned = new HashSet<Symbol>();
+            assignedIn(we, assigned);
+            invariant.removeAll(assigned);
+
+            List<Expression> header = new ArrayList<Expression>();
+            we.mapChildren(e -> hoistIn(e, invariant, locals, header, decls));
+            we.mapChildren(e -> visit(e, vars, locals, decls));
+            if (header.isEmpty()) return we;
+            header.add(we);
+            return new BlockExpr(header.toArray(new Expression[header.size()]));
+        }
+        exp.mapChildren(e -> visit(e, vars, locals, decls));
+        return exp;
+    }
+
+    /**
+     * Replaces the largest invariant expressions in exp with InvariantExprs,
+     * adding the declarations of their locals to decls, and the resets
+     * of their values to header.  Nested loops hoist into headers of
+     * their own (see visit).
+     */
+    private Expression hoistIn(Expression exp, Set<Symbol> invariant, Set<Symbol> locals,
+            List<Expression> header, List<Expression> decls) {
+        if (exp == null || exp instanceof FunctionDeclExpr
+                || exp instanceof WhileExpr || exp instanceof InvariantExpr) {
+            // A nested function has a frame of its own, a nested loop a
+            // header of its own, and a hoisted expression is done
+            return exp;
+        } else if ((exp instanceof BinOpExpr || exp instanceof FunctionAppExpr)
+                && isInvariant(exp, invariant, locals)) {
+            Symbol temp = Symbol.of("inv$" + temps++);
+            decls.add(new VarDeclExpr(temp, new ValueExpr(InvariantExpr.UNSET)));
+            header.add(new AssignExpr(temp, new ValueExpr(InvariantExpr.UNSET)));
+            return new InvariantExpr(new VarExpr(temp), new AssignExpr(temp, exp));
+        }
+        exp.mapChildren(e -> hoistIn(e, invariant, locals, header, decls));
+        return exp;
+    }
+
+    private boolean isInvariant(Expression exp, Set<Symbol> invariant, Set<Symbol> locals) {
+        if (exp instanceof ValueExpr) {
+            return true;
+        } else if (exp instanceof VarExpr) {
+            return invariant.contains(((VarExpr) exp).getName());
+        } else if (exp instanceof BinOpExpr) {
+            BinOpExpr boe = (BinOpExpr) exp;
+            return isInvariant(boe.getLeft(), invariant, locals)
+                && isInvariant(boe.getRight(), invariant, locals);
+        } else if (exp instanceof FunctionAppExpr) {
+            FunctionAppExpr fae = (FunctionAppExpr) exp;
+            if (!(fae.getFunction() instanceof VarExpr)) return false;
+            Symbol name = ((VarExpr) fae.getFunction()).getName();
+            if (locals.contains(name) || !pure.contains(name)) return false;
+            for (Expression arg : fae.getArgs()) {
+                if (!isInvariant(arg, invariant, locals)) return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the variables exp assigns or declares to names, including
+     * those of nested functions.
+     */
+    private static void assignedIn(Expression exp, Set<Symbol> names) {
+        if (exp == null) {
+            return;
+        } else if (exp instanceof AssignExpr) {
+            names.add(((AssignExpr) exp).getName());
+        } else if (exp instanceof VarDeclExpr) {
+            names.add(((VarDeclExpr) exp).getName());
+        }
+        exp.forEachChild(e -> assignedIn(e, names));
+    }
+
+    /**
+     * Adds the variables assigned by the functions nested in exp to names.
+     */
+    private static void assignedInFunctions(Expression exp, Set<Symbol> names) {
+        if (exp == null) {
+            return;
+        } else if (exp instanceof FunctionDeclExpr) {
+            assignedIn(exp, names);
+            return;
+        }
+        exp.forEachChild(e -> assignedInFunctions(e, names));
+    }
+}
@@ -0,0 +1,116 @@
+package edu.sjsu.fwjs;
+
+/**
+ * Maps variable names to the cells holding their values.
+ * Used for frames whose variables are looked up by name,
+ * such as the global environment.
+ *
+ * Names are Symbols, so they are compared by identity.
+ * Tables of up to INLINE_CAPACITY names are plain arrays that are
+ * scanned, which is faster than hashing for the small frames FWJS
+ * programs make.  Larger tables switch to open addressing with linear
+ * probing, starting at the symbol's id: ids are dense, so the symbols
+ * of a program rarely collide.  Names are never removed.
+ */
+class NameTable {
+    private static final int INLINE_CAPACITY = 8;
+
+    private Symbol[] keys = new Symbol[INLINE_CAPACITY];
+    private Cell[] cells = new Cell[INLINE_CAPACITY];
+    private boolean hashed;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the cell of name, or null if there is none.
+     */
+    public Cell get(Symbol name) {
+        if (!hashed) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == name) return cells[i];
+            }
+            return null;
+        }
+        int mask = keys.length - 1;
+        for (int i = name.getId() & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == name) return cells[i];
+        }
+        return null;
+    }
+
+    /**
+     * Like get, but may be called while another thread is adding a name.
+     * The result may then be wrong, so the caller must discard it unless
+     * it validates a StampedLock optimistic read, but the probe never
+     * runs off the arrays or loops forever.
+     */
+    public Cell getOptimistic(Symbol name) {
+        Symbol[] k = keys;
+        Cell[] c = cells;
+        // A rehash may have replaced one array and not yet the other.
+        // Both lengths are powers of two, and so is the smaller one.
+        int n = Math.min(k.length, c.length);
+        if (!hashed) {
+            for (int i = 0; i < size && i < n; i++) {
+                if (k[i] == name) return c[i];
+            }
+            return null;
+        }
+        int mask = n - 1;
+        int i = name.getId() & mask;
+        for (int probes = 0; probes < n && k[i] != null; probes++) {
+            if (k[i] == name) return c[i];
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Adds the cell of a name that is not in the table yet.
+     */
+    public void put(Symbol name, Cell cell) {
+        if (!hashed) {
+            if (size < INLINE_CAPACITY) {
+                keys[size] = name;
+                cells[size] = cell;
+                size++;
+                return;
+            }
+            rehash(INLINE_CAPACITY * 4);
+        } else if (2 * (size + 1) > keys.length) {
+            rehash(keys.length * 2);
+        }
+        insert(name, cell);
+        size++;
+    }
+
+    private void insert(Symbol name, Cell cell) {
+        int mask = keys.length - 1;
+        int i = name.getId() & mask;
+        while (keys[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = name;
+        cells[i] = cell;
+    }
+
+    /**
+     * Moves every entry into a hashed table of the given capacity,
+     * which must be a power of two.
+     */
+    private void rehash(int capacity) {
+        Symbol[] oldKeys = keys;
+        Cell[] oldCells = cells;
+        keys = new Symbol[capacity];
+        cells = new Cell[capacity];
+        hashed = true;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                insert(oldKeys[i], oldCells[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package edu.sjsu.fwjs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the identifiers of a program to lexical addresses.
+ * A variable local to the current function becomes a slot or a cell
+ * of its frame, a variable of an enclosing function becomes one of
+ * the cells captured by the closure (see Scope), and anything else
+ * is a global, found through the global environment.
+ *
+ * Like JS, a var declaration is local to the whole function it appears in,
+ * not just to the statements after it.
+ */
+class Resolver {
+    private List<Scope> scopes = new ArrayList<Scope>();
+
+    private Resolver() {}
+
+    /**
+     * Resolves a whole program, which runs in the global scope.
+     */
+    public static Expression resolve(Expression prog) {
+        Resolver r = new Resolver();
+        // Which locals are captured is only known once every nested
+        // function has been seen, so addresses are bound in a second walk.
+        r.analyze(prog, null);
+        for (Scope s : r.scopes) {
+            s.layout();
+        }
+        bind(prog, null);
+        adopt(prog, null);
+        return prog;
+    }
+
+    /**
+     * Creates the scope of every function and records every reference.
+     * Scopes are collected outermost first.
+     */
+    private void analyze(Expression exp, Scope scope) {
+        if (exp == null) {
+            return;
+        } else if (exp instanceof VarExpr) {
+            if (scope != null) scope.reference(((VarExpr) exp).getName());
+        } else if (exp instanceof AssignExpr) {
+            if (scope != null) scope.reference(((AssignExpr) exp).getName());
+        } else if (exp instanceof FunctionDeclExpr) {
+            FunctionDeclExpr fde = (FunctionDeclExpr) exp;
+            Scope inner = new Scope(scope, fde.getParams());
+            declareLocals(fde.getBody(), inner);
+            fde.setScope(inner);
+            scopes.add(inner);
+            fde.forEachChild(e -> analyze(e, inner));
+            return;
+        }
+        exp.forEachChild(e -> analyze(e, scope));
+    }
+
+    /**
+     * Adds every variable declared in exp to scope, and the params of the
+     * functions inlined in it, without descending into nested functions.
+     */
+    private static void declareLocals(Expression exp, Scope scope) {
+        if (exp == null) {
+            return;
+        } else if (exp instanceof VarDeclExpr) {
+            scope.declare(((VarDeclExpr) exp).getName());
+        } else if (exp instanceof InlinedCallExpr) {
+            for (AssignExpr param : ((InlinedCallExpr) exp).getParams()) {
+                scope.declare(param.getName());
+            }
+        } else if (exp instanceof FunctionDeclExpr) {
+            return;
+        }
+        exp.forEachChild(e -> declareLocals(e, scope));
+    }
+
+    /**
+     * Binds every variable reference to its address.
+     */
+    private static void bind(Expression exp, Scope scope) {
+        if (exp == null) {
+            return;
+        } else if (exp instanceof VarExpr) {
+            VarExpr ve = (VarExpr) exp;
+            ve.bind(kindOf(ve.getName(), scope), positionOf(ve.getName(), scope));
+        } else if (exp instanceof AssignExpr) {
+            AssignExpr ae = (AssignExpr) exp;
+            ae.bind(kindOf(ae.getName(), scope), positionOf(ae.getName(), scope));
+        } else if (exp instanceof VarDeclExpr) {
+            // Declarations were hoisted, so the variable is always in this scope.
+            VarDeclExpr vde = (VarDeclExpr) exp;
+            if (scope != null) {
+                vde.bind(scope.kindOf(vde.getName()), scope.positionOf(vde.getName()));
+            }
+        } else if (exp instanceof FunctionDeclExpr) {
+            Scope inner = ((FunctionDeclExpr) exp).getScope();
+            exp.forEachChild(e -> bind(e, inner));
+            return;
+        }
+        exp.forEachChild(e -> bind(e, scope));
+    }
+
+    /**
+     * Gives every operator its parent, so that it can replace itself with
+     * a specialized node (see BinOpExpr).  A closure keeps the body of its
+     * function, so an operator that is a whole body is put in a block.
+     */
+    private static void adopt(Expression exp, Expression parent) {
+        if (exp == null) {
+            return;
+        } else if (exp instanceof BinOpExpr) {
+            ((BinOpExpr) exp).setParent(parent);
+        } else if (exp instanceof FunctionDeclExpr) {
+            exp.mapChildren(body -> body instanceof BinOpExpr
+                    ? new BlockExpr(new Expression[] { body }) : body);
+        }
+        exp.forEachChild(e -> adopt(e, exp));
+    }
+
+    private static Scope.Kind kindOf(Symbol varName, Scope scope) {
+        return scope == null ? Scope.Kind.GLOBAL : scope.kindOf(varName);
+    }
+
+    private static int positionOf(Symbol varName, Scope scope) {
+        return scope == null ? -1 : scope.positionOf(varName);
+    }
+}
@@ -0,0 +1,169 @@
+package edu.sjsu.fwjs;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The compile-time layout of a function's variables.
+ * Every parameter and every variable declared with var anywhere
+ * in the function body (but not in nested functions) is a local.
+ *
+ * Locals that no nested function refers to live in the slots of the
+ * frame.  Locals that are captured by a nested function live in cells,
+ * so the closure can share them with the frame that created it.
+ * Variables of enclosing functions that this function (or a function
+ * nested in it) refers to are its free variables; a closure holds
+ * exactly the cells of its free variables, and nothing else.
+ */
+class Scope {
+    /**
+     * How a resolved variable reference finds its variable.
+     */
+    enum Kind {
+        /** Not resolved: looked up by name through the scope chain. */
+        DYNAMIC,
+        /** Not declared by any enclosing function: a global. */
+        GLOBAL,
+        /** An uncaptured local, in a slot of the frame. */
+        SLOT,
+        /** A captured local, in a cell of the frame. */
+        CELL,
+        /** A variable of an enclosing function, in a cell of the closure. */
+        FREE
+    }
+
+    private Scope parent;
+    private List<Symbol> names = new ArrayList<Symbol>();
+    private Set<Symbol> captured = new HashSet<Symbol>();
+    private List<Symbol> free = new ArrayList<Symbol>();
+
+    // Computed by layout()
+    private int[] positions;
+    private boolean[] boxed;
+    private int slotCount;
+    private int cellCount;
+    private int[] captureFrom;
+
+    /**
+     * Creates the scope of a function nested inside parent.
+     * A null parent means the function is declared in the global scope.
+     */
+    public Scope(Scope parent, List<Symbol> params) {
+        this.parent = parent;
+        // Parameters are the first locals, in order
+        for (Symbol param : params) {
+            if (indexOf(param) >= 0) {
+                throw new RuntimeException("Variable has been defined in the current scope previously");
+            }
+            names.add(param);
+        }
+    }
+
+    public Scope getParent() {
+        return this.parent;
+    }
+
+    /**
+     * Adds a local variable, returning its index.
+     * Declaring the same name twice returns the same index.
+     */
+    public int declare(Symbol name) {
+        int local = indexOf(name);
+        if (local < 0) {
+            local = names.size();
+            names.add(name);
+        }
+        return local;
+    }
+
+    /**
+     * Returns the index of the named local variable, or -1 if the
+     * variable is not local to this scope.
+     */
+    public int indexOf(Symbol name) {
+        return names.indexOf(name);
+    }
+
+    /**
+     * Records a reference to name made from inside this scope.
+     * If name belongs to an enclosing function, it becomes a free
+     * variable of this scope and of every scope in between,
+     * and a captured local of the function that declares it.
+     */
+    public void reference(Symbol name) {
+        if (indexOf(name) >= 0) return;
+        Scope owner = parent;
+        while (owner != null && owner.indexOf(name) < 0) {
+            owner = owner.parent;
+        }
+        if (owner == null) return;
+        for (Scope s = this; s != owner; s = s.parent) {
+            if (!s.free.contains(name)) s.free.add(name);
+        }
+        owner.captured.add(name);
+    }
+
+    /**
+     * Assigns slots and cells to the locals.  The enclosing scope
+     * must already be laid out.
+     */
+    public void layout() {
+        positions = new int[names.size()];
+        boxed = new boolean[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            boxed[i] = captured.contains(names.get(i));
+            positions[i] = boxed[i] ? cellCount++ : slotCount++;
+        }
+        // Where the frame creating the closure keeps each free variable:
+        // a cell index, or -(i+1) for its own free variable i.
+        captureFrom = new int[free.size()];
+        for (int i = 0; i < free.size(); i++) {
+            Symbol name = free.get(i);
+            int local = parent.indexOf(name);
+            captureFrom[i] = local >= 0
+                ? parent.positions[local]
+                : -(parent.free.indexOf(name) + 1);
+        }
+    }
+
+    /**
+     * How a reference to name from inside this scope finds it.
+     * Only valid once every scope has been laid out.
+     */
+    public Kind kindOf(Symbol name) {
+        int local = indexOf(name);
+        if (local >= 0) return boxed[local] ? Kind.CELL : Kind.SLOT;
+        return free.contains(name) ? Kind.FREE : Kind.GLOBAL;
+    }
+
+    /**
+     * The slot, cell or free-variable index of name, to go with kindOf.
+     */
+    public int positionOf(Symbol name) {
+        int local = indexOf(name);
+        if (local >= 0) return positions[local];
+        return free.indexOf(name);
+    }
+
+    public boolean isCaptured(int local) {
+        return boxed[local];
+    }
+
+    public int position(int local) {
+        return positions[local];
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int[] getCaptureFrom() {
+        return captureFrom;
+    }
+}
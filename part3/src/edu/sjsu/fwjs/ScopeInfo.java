@@ -0,0 +1,90 @@
+package edu.sjsu.fwjs;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What the statements of a function body (or of the program) do with
+ * variables, for the passes that run before the Resolver: where each
+ * local is declared, where each variable is first used, and which
+ * variables are assigned.
+ *
+ * The locals of a nested function are its own, so the nested function's
+ * uses of them are not counted; its uses of other variables are.
+ */
+class ScopeInfo {
+    // The statement each local is declared by, or -1 if it is
+    // declared more than once
+    final Map<Symbol,Integer> declaredAt = new HashMap<Symbol,Integer>();
+    final Map<Symbol,Integer> firstUse = new HashMap<Symbol,Integer>();
+    final Set<Symbol> assigned = new HashSet<Symbol>();
+
+    private ScopeInfo() {}
+
+    /**
+     * Analyzes the statements of a body, as listed by statements.
+     */
+    public static ScopeInfo of(List<Expression> stmts) {
+        ScopeInfo info = new ScopeInfo();
+        for (int i = 0; i < stmts.size(); i++) {
+            info.scan(stmts.get(i), i, new HashSet<Symbol>(), true);
+        }
+        return info;
+    }
+
+    /**
+     * The variables declared in a function body, outside nested functions.
+     */
+    public static Set<Symbol> localsOf(Expression body) {
+        ScopeInfo info = new ScopeInfo();
+        info.scan(body, 0, new HashSet<Symbol>(), true);
+        return info.declaredAt.keySet();
+    }
+
+    /**
+     * Lists the statements of a sequence, in the order they run.
+     */
+    public static void statements(Expression exp, List<Expression> stmts) {
+        if (exp instanceof SeqExpr) {
+            statements(((SeqExpr) exp).getFirst(), stmts);
+            statements(((SeqExpr) exp).getSecond(), stmts);
+        } else if (exp instanceof BlockExpr) {
+            for (Expression stmt : ((BlockExpr) exp).getStatements()) {
+                statements(stmt, stmts);
+            }
+        } else {
+            stmts.add(exp);
+        }
+    }
+
+    /**
+     * Records the declarations, uses and assignments of statement i.
+     * Variables in hidden are locals of a nested function, not the
+     * variables of this scope.
+     */
+    private void scan(Expression exp, int i, Set<Symbol> hidden, boolean here) {
+        if (exp == null) {
+            return;
+        } else if (exp instanceof VarExpr) {
+            Symbol name = ((VarExpr) exp).getName();
+            if (!hidden.contains(name)) firstUse.putIfAbsent(name, i);
+        } else if (exp instanceof AssignExpr) {
+            Symbol name = ((AssignExpr) exp).getName();
+            if (!hidden.contains(name)) assigned.add(name);
+        } else if (exp instanceof VarDeclExpr && here) {
+            Symbol name = ((VarDeclExpr) exp).getName();
+            declaredAt.put(name, declaredAt.containsKey(name) ? -1 : i);
+        } else if (exp instanceof FunctionDeclExpr) {
+            FunctionDeclExpr fde = (FunctionDeclExpr) exp;
+            Set<Symbol> inner = new HashSet<Symbol>(hidden);
+            inner.addAll(fde.getParams());
+            inner.addAll(localsOf(fde.getBody()));
+            fde.forEachChild(e -> scan(e, i, inner, false));
+            return;
+        }
+        exp.forEachChild(e -> scan(e, i, hidden, here));
+    }
+}
@@ -0,0 +1,98 @@
+package edu.sjsu.fwjs;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The hidden class of an object: which properties it has, and the slot
+ * each one is stored in.
+ *
+ * Shapes are shared.  Every object starts out with the EMPTY shape, and
+ * adding a property moves it to the shape reached by the transition for
+ * that name, so objects that get the same properties in the same order
+ * end up with the same shape.  A property access then only needs to
+ * compare shapes to know which slot to use (see PropertyCache).
+ * Shapes are immutable; properties are never removed.
+ */
+final class Shape {
+    static final Shape EMPTY = new Shape(new Symbol[0]);
+
+    // The properties, in slot order
+    private final Symbol[] names;
+    private final ConcurrentHashMap<Symbol,Shape> transitions =
+        new ConcurrentHashMap<Symbol,Shape>();
+
+    private Shape(Symbol[] names) {
+        this.names = names;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public Symbol nameAt(int slot) {
+        return names[slot];
+    }
+
+    /**
+     * Returns the slot of a property, or -1 if objects of this shape do
+     * not have it.  Objects are small, so the names are scanned.
+     */
+    public int indexOf(Symbol name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] == name) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * The shape of an object of this shape once the property name is
+     * added, in the next slot.  If the property is already here, this
+     * shape is returned.
+     */
+    public Shape with(Symbol name) {
+        if (indexOf(name) >= 0) return this;
+        Shape next = transitions.get(name);
+        if (next != null) return next;
+        return transitions.computeIfAbsent(name, k -> {
+            Symbol[] more = Arrays.copyOf(names, names.length + 1);
+            more[names.length] = k;
+            return new Shape(more);
+        });
+    }
+}
+
+/**
+ * The inline cache of a property access site: the slot of the property
+ * in objects of one shape, and for an assignment that adds the
+ * property, the shape the object moves to.
+ * Immutable, so that threads sharing the site see a consistent entry.
+ */
+final class PropertyCache {
+    final Shape shape;
+    final int index;
+    final Shape next;
+
+    public PropertyCache(Shape shape, int index, Shape next) {
+        this.shape = shape;
+        this.index = index;
+        this.next = next;
+    }
+
+    /**
+     * The cache entry for reading name from objects of the given shape.
+     * The index is -1 if they do not have the property.
+     */
+    static PropertyCache forRead(Shape shape, Symbol name) {
+        return new PropertyCache(shape, shape.indexOf(name), shape);
+    }
+
+    /**
+     * The cache entry for assigning name in objects of the given shape,
+     * which adds the property if they do not have it.
+     */
+    static PropertyCache forWrite(Shape shape, Symbol name) {
+        Shape next = shape.with(name);
+        return new PropertyCache(shape, next.indexOf(name), next);
+    }
+}
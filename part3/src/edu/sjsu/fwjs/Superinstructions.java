@@ -0,0 +1,99 @@
+package edu.sjsu.fwjs;
+
+/**
+ * Replaces common patterns of a resolved program with superinstructions
+ * (see FusedExpr):
+ *
+ *   x = x + c, x = x - c, x = c + x   an IncrementExpr
+ *   x = y op z                        an AssignOpExpr
+ *   x op c, c op x                    a CompareConstExpr
+ *
+ * where x, y and z are variables, c is an int literal, and op is an
+ * arithmetic operator or a comparison respectively.
+ *
+ * This is the last pass: the other passes do not know superinstructions.
+ */
+class Superinstructions {
+    private Superinstructions() {}
+
+    public static Expression fuse(Expression exp) {
+        if (exp == null) return null;
+        exp.mapChildren(Superinstructions::fuse);
+        if (exp instanceof AssignExpr) {
+            Expression fused = fuseAssign((AssignExpr) exp);
+            if (fused != null) return fused;
+        } else if (exp instanceof BinOpExpr) {
+            Expression fused = fuseCompare((BinOpExpr) exp);
+            if (fused != null) return fused;
+        }
+        return exp;
+    }
+
+    private static Expression fuseAssign(AssignExpr ae) {
+        if (!(ae.getExpression() instanceof BinOpExpr)) return null;
+        BinOpExpr boe = (BinOpExpr) ae.getExpression();
+        Op op = boe.getOp();
+        Expression left = boe.getLeft();
+        Expression right = boe.getRight();
+        if (op == Op.ADD || op == Op.SUBTRACT) {
+            Integer c = intLiteral(right);
+            if (c != null && isTarget(left, ae)) {
+                return new IncrementExpr(ae, (VarExpr) left, op, c, false);
+            }
+            c = intLiteral(left);
+            if (c != null && op == Op.ADD && isTarget(right, ae)) {
+                return new IncrementExpr(ae, (VarExpr) right, op, c, true);
+            }
+        }
+        if (!BinOpExpr.isComparison(op) && left instanceof VarExpr && right instanceof VarExpr) {
+            return new AssignOpExpr(ae, op, (VarExpr) left, (VarExpr) right);
+        }
+        return null;
+    }
+
+    private static Expression fuseCompare(BinOpExpr boe) {
+        if (!BinOpExpr.isComparison(boe.getOp())) return null;
+        Integer c = intLiteral(boe.getRight());
+        if (c != null && boe.getLeft() instanceof VarExpr) {
+            return new CompareConstExpr(boe, (VarExpr) boe.getLeft(), c);
+        }
+        c = intLiteral(boe.getLeft());
+        if (c != null && boe.getRight() instanceof VarExpr) {
+            // c op x is x op' c, with the comparison mirrored
+            BinOpExpr mirrored = new BinOpExpr(mirror(boe.getOp()), boe.getRight(), boe.getLeft());
+            return new CompareConstExpr(mirrored, (VarExpr) boe.getRight(), c);
+        }
+        return null;
+    }
+
+    private static Op mirror(Op op) {
+        switch(op) {
+            case LT:
+                return Op.GT;
+            case LE:
+                return Op.GE;
+            case GT:
+                return Op.LT;
+            case GE:
+                return Op.LE;
+            default:
+                return op;
+        }
+    }
+
+    /**
+     * Whether exp reads the variable that ae assigns.
+     */
+    private static boolean isTarget(Expression exp, AssignExpr ae) {
+        if (!(exp instanceof VarExpr)) return false;
+        VarExpr ve = (VarExpr) exp;
+        return ve.getName() == ae.getName() && ve.getKind() == ae.getKind()
+            && ve.getPosition() == ae.getPosition();
+    }
+
+    private static Integer intLiteral(Expression exp) {
+        if (!(exp instanceof ValueExpr)) return null;
+        Value v = ((ValueExpr) exp).getValue();
+        return v instanceof IntVal ? ((IntVal) v).toInt() : null;
+    }
+}
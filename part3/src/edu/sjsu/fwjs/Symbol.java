@@ -0,0 +1,57 @@
+package edu.sjsu.fwjs;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An interned identifier.
+ * There is exactly one Symbol per name, so symbols are compared by
+ * identity.  Each symbol has a dense integer id, handed out in order of
+ * creation, which name tables use in place of a hash, and a precomputed
+ * hash code for use as a key in Java collections.
+ *
+ * The symbol table is shared by every program, so that the ids of
+ * programs run against the same global environment agree.
+ */
+public final class Symbol {
+    private static final ConcurrentHashMap<String,Symbol> TABLE =
+        new ConcurrentHashMap<String,Symbol>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private final String name;
+    private final int id;
+    private final int hash;
+
+    private Symbol(String name) {
+        this.name = name;
+        this.id = NEXT_ID.getAndIncrement();
+        this.hash = name.hashCode();
+    }
+
+    /**
+     * Returns the symbol for name, creating it if needed.
+     */
+    public static Symbol of(String name) {
+        Symbol sym = TABLE.get(name);
+        if (sym != null) return sym;
+        return TABLE.computeIfAbsent(name, Symbol::new);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getId() {
+        return this.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
@@ -0,0 +1,915 @@
+package edu.sjsu.fwjs;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An alternative to evaluating Expressions, in which every FWJS value is
+ * encoded in a long.  Ints, booleans and null are stored in the long
+ * itself, so numeric code allocates no values at all; only closures
+ * (and any other heap value) are objects.
+ *
+ * A resolved program is compiled into a tree of Nodes that mirrors it.
+ * A long whose tag is REF stands for an object held next to it: in the
+ * refs of a frame, in a cell, or, for the result of a node, in the
+ * ref register of the engine, which is only valid until the next node
+ * is evaluated.
+ *
+ * Selected with: java edu.sjsu.fwjs.Interpreter --engine=tagged file
+ */
+class TaggedEngine {
+    // The tag is in the high 32 bits and the payload in the low 32 bits.
+    // A long of 0 has no tag: a variable that is not bound yet.
+    static final long UNBOUND = 0;
+    static final int INT = 1;
+    static final int BOOL = 2;
+    static final int NULL = 3;
+    static final int REF = 4;
+
+    static final long NULL_BITS = (long) NULL << 32;
+    static final long FALSE_BITS = (long) BOOL << 32;
+    static final long TRUE_BITS = FALSE_BITS | 1;
+    static final long REF_BITS = (long) REF << 32;
+
+    private static final TaggedCell[] NO_CELLS = new TaggedCell[0];
+
+    static long ofInt(int i) {
+        return ((long) INT << 32) | (i & 0xffffffffL);
+    }
+
+    static long ofBoolean(boolean b) {
+        return b ? TRUE_BITS : FALSE_BITS;
+    }
+
+    static int tag(long bits) {
+        return (int) (bits >>> 32);
+    }
+
+    static int payload(long bits) {
+        return (int) bits;
+    }
+
+    /**
+     * The int a value that is not a REF stands for as an operand of
+     * arithmetic, as for Value.asInt.
+     */
+    static int asInt(long bits) {
+        int tag = tag(bits);
+        return tag == INT || tag == BOOL ? payload(bits) : 0;
+    }
+
+    /**
+     * The Value an encoded value stands for, for BinOpExpr.apply,
+     * builtins and heap values such as lists.
+     */
+    static Value toValue(long bits, Object ref) {
+        switch (tag(bits)) {
+            case REF:
+                return (Value) ref;
+            case BOOL:
+                return BoolVal.valueOf(payload(bits) != 0);
+            case INT:
+                return IntVal.valueOf(payload(bits));
+            default:
+                return NullVal.NULL;
+        }
+    }
+
+    /**
+     * Prints like the Value that the encoded value stands for.
+     */
+    static String toString(long bits, Object ref) {
+        switch (tag(bits)) {
+            case INT:
+                return Integer.toString(payload(bits));
+            case BOOL:
+                return payload(bits) != 0 ? "true" : "false";
+            case REF:
+                return ref.toString();
+            default:
+                return "null";
+        }
+    }
+
+    /**
+     * Encodes a value.  For REF, the value itself is the object.
+     */
+    static long encode(Value v) {
+        if (v instanceof IntVal) return ofInt(((IntVal) v).toInt());
+        if (v instanceof BoolVal) return ofBoolean(((BoolVal) v).toBoolean());
+        if (v == null || v instanceof NullVal) return NULL_BITS;
+        return REF_BITS;
+    }
+
+    // The globals of the program, found by the nodes when compiled
+    private Map<Symbol,TaggedCell> globals = new HashMap<Symbol,TaggedCell>();
+
+    // The ref register (see above)
+    Object ref;
+
+    // Reusable frames, as in FrameStack
+    private Frame[] frames = new Frame[16];
+    private int top;
+
+    /**
+     * Compiles and runs a resolved program.
+     * If the program uses an expression this engine does not support,
+     * an UnsupportedOperationException is thrown before anything runs.
+     */
+    public static void run(Expression prog) {
+        TaggedEngine engine = new TaggedEngine();
+        Node node = engine.compile(prog);
+        node.eval(new Frame(engine));
+    }
+
+    /**
+     * Returns v as the result of a node, leaving it in the ref register
+     * if it is a heap value.
+     */
+    long result(Value v) {
+        long bits = encode(v);
+        if (tag(bits) == REF) this.ref = v;
+        return bits;
+    }
+
+    /**
+     * The cell of a global.  A global with the name of a builtin starts
+     * out holding the builtin, until the program declares or assigns it.
+     */
+    private TaggedCell globalCell(Symbol name) {
+        return globals.computeIfAbsent(name, k -> {
+            TaggedCell c = new TaggedCell();
+            Cell builtin = Builtins.lookup(k);
+            if (builtin != null) {
+                c.set(REF_BITS, builtin.value);
+                c.builtin = true;
+            }
+            return c;
+        });
+    }
+
+    /**
+     * Translates an expression into a node of this engine.
+     */
+    Node compile(Expression exp) {
+        if (exp instanceof FusedExpr) {
+            return compile(((FusedExpr) exp).getUnfused());
+        } else if (exp instanceof InvariantExpr) {
+            // Computed again at every iteration
+            return compile(((InvariantExpr) exp).getComputation());
+        } else if (exp instanceof InlinedCallExpr) {
+            // Calls are cheap enough here, so the call is made as written
+            return compile(((InlinedCallExpr) exp).getCall());
+        } else if (exp instanceof ValueExpr) {
+            Value v = ((ValueExpr) exp).getValue();
+            return new Const(encode(v), v);
+        } else if (exp instanceof VarExpr) {
+            VarExpr ve = (VarExpr) exp;
+            return new Get(ve.getKind(), ve.getPosition(), globalCell(ve.getName()));
+        } else if (exp instanceof AssignExpr) {
+            AssignExpr ae = (AssignExpr) exp;
+            return new Set(ae.getKind(), ae.getPosition(), globalCell(ae.getName()),
+                    compile(ae.getExpression()));
+        } else if (exp instanceof VarDeclExpr) {
+            VarDeclExpr vde = (VarDeclExpr) exp;
+            // Only the declarations of the global scope are left unresolved
+            Scope.Kind kind = vde.getKind() == Scope.Kind.DYNAMIC
+                ? Scope.Kind.GLOBAL : vde.getKind();
+            return new Decl(kind, vde.getPosition(), globalCell(vde.getName()),
+                    compile(vde.getExpression()));
+        } else if (exp instanceof BinOpExpr) {
+            BinOpExpr boe = (BinOpExpr) exp;
+            return new BinOp(boe.getOp(), compile(boe.getLeft()), compile(boe.getRight()));
+        } else if (exp instanceof IfExpr) {
+            IfExpr ie = (IfExpr) exp;
+            return new If(compile(ie.getCondition()), compile(ie.getThen()),
+                    ie.getElse() == null ? null : compile(ie.getElse()));
+        } else if (exp instanceof WhileExpr) {
+            WhileExpr we = (WhileExpr) exp;
+            return new While(compile(we.getCondition()), compile(we.getBody()));
+        } else if (exp instanceof SeqExpr) {
+            SeqExpr se = (SeqExpr) exp;
+            return new Seq(compile(se.getFirst()), compile(se.getSecond()));
+        } else if (exp instanceof BlockExpr) {
+            Expression[] stmts = ((BlockExpr) exp).getStatements();
+            Node[] stmtNodes = new Node[stmts.length];
+            for (int i = 0; i < stmtNodes.length; i++) {
+                stmtNodes[i] = compile(stmts[i]);
+            }
+            return new Block(stmtNodes);
+        } else if (exp instanceof PrintExpr) {
+            return new Print(compile(((PrintExpr) exp).getExpression()));
+        } else if (exp instanceof FunctionDeclExpr) {
+            FunctionDeclExpr fde = (FunctionDeclExpr) exp;
+            if (fde.getScope() == null) {
+                throw new UnsupportedOperationException("The tagged engine needs a resolved program");
+            }
+            return new Function(fde.getParams(), compile(fde.getBody()), fde.getScope());
+        } else if (exp instanceof FunctionAppExpr) {
+            FunctionAppExpr fae = (FunctionAppExpr) exp;
+            List<Expression> args = fae.getArgs();
+            Node[] argNodes = new Node[args.size()];
+            for (int i = 0; i < argNodes.length; i++) {
+                argNodes[i] = compile(args.get(i));
+            }
+            return new Call(compile(fae.getFunction()), argNodes);
+        } else if (exp instanceof ListExpr) {
+            List<Expression> elems = ((ListExpr) exp).getElements();
+            Node[] elemNodes = new Node[elems.size()];
+            for (int i = 0; i < elemNodes.length; i++) {
+                elemNodes[i] = compile(elems.get(i));
+            }
+            return new ListLit(elemNodes);
+        } else if (exp instanceof ArrayExpr) {
+            List<Expression> elems = ((ArrayExpr) exp).getElements();
+            Node[] elemNodes = new Node[elems.size()];
+            for (int i = 0; i < elemNodes.length; i++) {
+                elemNodes[i] = compile(elems.get(i));
+            }
+            return new ArrayLit(elemNodes);
+        } else if (exp instanceof IndexExpr) {
+            IndexExpr ie = (IndexExpr) exp;
+            return new Index(compile(ie.getArray()), compile(ie.getIndex()));
+        } else if (exp instanceof IndexAssignExpr) {
+            IndexAssignExpr iae = (IndexAssignExpr) exp;
+            return new IndexSet(compile(iae.getArray()), compile(iae.getIndex()),
+                    compile(iae.getExpression()));
+        } else if (exp instanceof ObjectExpr) {
+            ObjectExpr oe = (ObjectExpr) exp;
+            List<Expression> values = oe.getValues();
+            Node[] valueNodes = new Node[values.size()];
+            for (int i = 0; i < valueNodes.length; i++) {
+                valueNodes[i] = compile(values.get(i));
+            }
+            return new ObjectLit(oe.getShape(), oe.getSlots(), valueNodes);
+        } else if (exp instanceof PropExpr) {
+            PropExpr pe = (PropExpr) exp;
+            return new GetProp(compile(pe.getObject()), pe.getName());
+        } else if (exp instanceof PropAssignExpr) {
+            PropAssignExpr pae = (PropAssignExpr) exp;
+            return new SetProp(compile(pae.getObject()), pae.getName(),
+                    compile(pae.getExpression()));
+        }
+        throw new UnsupportedOperationException("The tagged engine does not support "
+                + exp.getClass().getSimpleName());
+    }
+
+    Frame push(Function fn, TaggedCell[] free) {
+        if (top == frames.length) {
+            frames = Arrays.copyOf(frames, top * 2);
+        }
+        Frame frame = frames[top];
+        if (frame == null) {
+            frame = new Frame(this);
+            frames[top] = frame;
+        }
+        top++;
+        frame.enter(fn, free);
+        return frame;
+    }
+
+    void pop(Frame frame) {
+        frame.exit();
+        top--;
+    }
+
+    /**
+     * A frame of the tagged engine.  Like a resolved Environment, it has
+     * the slots and cells of a function's locals and the cells its
+     * closure captured; a slot of REF is paired with an object in refs.
+     */
+    static final class Frame {
+        final TaggedEngine engine;
+        long[] slots = new long[8];
+        Object[] refs = new Object[8];
+        TaggedCell[] cells = NO_CELLS;
+        TaggedCell[] free = NO_CELLS;
+        private int slotCount;
+
+        Frame(TaggedEngine engine) {
+            this.engine = engine;
+        }
+
+        void enter(Function fn, TaggedCell[] free) {
+            this.slotCount = fn.slotCount;
+            if (slots.length < slotCount) {
+                slots = new long[slotCount];
+                refs = new Object[slotCount];
+            }
+            if (fn.cellCount > 0) {
+                cells = new TaggedCell[fn.cellCount];
+                for (int i = 0; i < cells.length; i++) {
+                    cells[i] = new TaggedCell();
+                }
+            }
+            this.free = free;
+        }
+
+        void exit() {
+            Arrays.fill(slots, 0, slotCount, UNBOUND);
+            Arrays.fill(refs, 0, slotCount, null);
+            cells = NO_CELLS;
+            free = NO_CELLS;
+        }
+
+        /**
+         * Binds a local of the given kind, which must not be bound yet.
+         */
+        void define(Scope.Kind kind, int pos, long bits, Object ref) {
+            if (kind == Scope.Kind.CELL) {
+                TaggedCell c = cells[pos];
+                if (c.bits != UNBOUND) {
+                    throw new RuntimeException("Variable has been defined in the current scope previously");
+                }
+                c.set(bits, ref);
+            } else {
+                if (slots[pos] != UNBOUND) {
+                    throw new RuntimeException("Variable has been defined in the current scope previously");
+                }
+                slots[pos] = bits;
+                refs[pos] = tag(bits) == REF ? ref : null;
+            }
+        }
+    }
+
+    /**
+     * A node of a compiled program.
+     * eval returns the encoded value, leaving an object in the ref register
+     * of the engine if its tag is REF.
+     */
+    abstract static class Node {
+        abstract long eval(Frame f);
+
+        boolean evalBoolean(Frame f) {
+            long bits = eval(f);
+            if (tag(bits) == BOOL) return payload(bits) != 0;
+            throw new RuntimeException("Condition must evaluate to a boolean");
+        }
+    }
+
+    static final class Const extends Node {
+        private final long bits;
+        private final Object ref;
+        Const(long bits, Object ref) {
+            this.bits = bits;
+            this.ref = tag(bits) == REF ? ref : null;
+        }
+        long eval(Frame f) {
+            if (ref != null) f.engine.ref = ref;
+            return bits;
+        }
+    }
+
+    /**
+     * Reads a variable.  An unbound variable reads as null.
+     */
+    static final class Get extends Node {
+        private final Scope.Kind kind;
+        private final int pos;
+        private final TaggedCell global;
+        Get(Scope.Kind kind, int pos, TaggedCell global) {
+            this.kind = kind;
+            this.pos = pos;
+            this.global = global;
+        }
+        long eval(Frame f) {
+            long bits;
+            switch (kind) {
+                case SLOT:
+                    bits = f.slots[pos];
+                    if (tag(bits) == REF) f.engine.ref = f.refs[pos];
+                    break;
+                case CELL:
+                    bits = f.cells[pos].get(f.engine);
+                    break;
+                case FREE:
+                    bits = f.free[pos].get(f.engine);
+                    break;
+                default:
+                    bits = global.get(f.engine);
+            }
+            return bits == UNBOUND ? NULL_BITS : bits;
+        }
+    }
+
+    static final class Set extends Node {
+        private final Scope.Kind kind;
+        private final int pos;
+        private final TaggedCell global;
+        private final Node e;
+        Set(Scope.Kind kind, int pos, TaggedCell global, Node e) {
+            this.kind = kind;
+            this.pos = pos;
+            this.global = global;
+            this.e = e;
+        }
+        long eval(Frame f) {
+            long bits = e.eval(f);
+            Object ref = tag(bits) == REF ? f.engine.ref : null;
+            switch (kind) {
+                case SLOT:
+                    f.slots[pos] = bits;
+                    f.refs[pos] = ref;
+                    break;
+                case CELL:
+                    f.cells[pos].set(bits, ref);
+                    break;
+                case FREE:
+                    f.free[pos].set(bits, ref);
+                    break;
+                default:
+                    global.set(bits, ref);
+            }
+            return bits;
+        }
+    }
+
+    static final class Decl extends Node {
+        private final Scope.Kind kind;
+        private final int pos;
+        private final TaggedCell global;
+        private final Node e;
+        Decl(Scope.Kind kind, int pos, TaggedCell global, Node e) {
+            this.kind = kind;
+            this.pos = pos;
+            this.global = global;
+            this.e = e;
+        }
+        long eval(Frame f) {
+            long bits = e.eval(f);
+            Object ref = tag(bits) == REF ? f.engine.ref : null;
+            if (kind == Scope.Kind.GLOBAL) {
+                if (global.bits != UNBOUND && !global.builtin) {
+                    throw new RuntimeException("Variable has been defined in the current scope previously");
+                }
+                global.set(bits, ref);
+            } else {
+                f.define(kind, pos, bits, ref);
+            }
+            return bits;
+        }
+    }
+
+    /**
+     * Arithmetic on two ints (or booleans or null) is done on the
+     * payloads.  A result that overflows an int, and any operation on
+     * heap numbers, goes through BinOpExpr.apply.
+     */
+    static final class BinOp extends Node {
+        private final Op op;
+        private final Node e1;
+        private final Node e2;
+        BinOp(Op op, Node e1, Node e2) {
+            this.op = op;
+            this.e1 = e1;
+            this.e2 = e2;
+        }
+        long eval(Frame f) {
+            long bits1 = e1.eval(f);
+            Object ref1 = f.engine.ref;
+            long bits2 = e2.eval(f);
+            if (tag(bits1) == REF || tag(bits2) == REF) {
+                Value v = BinOpExpr.apply(op, toValue(bits1, ref1), toValue(bits2, f.engine.ref));
+                return f.engine.result(v);
+            }
+            int val1 = asInt(bits1);
+            int val2 = asInt(bits2);
+            long res;
+            switch (op) {
+                case ADD:
+                    res = (long) val1 + val2;
+                    break;
+                case SUBTRACT:
+                    res = (long) val1 - val2;
+                    break;
+                case MULTIPLY:
+                    res = (long) val1 * val2;
+                    break;
+                case DIVIDE:
+                    res = (long) val1 / val2;
+                    break;
+                case MOD:
+                    return ofInt(val1 % val2);
+                default:
+                    return ofBoolean(BinOpExpr.compare(op, val1, val2));
+            }
+            if ((int) res == res) return ofInt((int) res);
+            f.engine.ref = new LongVal(res);
+            return REF_BITS;
+        }
+    }
+
+    static final class If extends Node {
+        private final Node cond;
+        private final Node thn;
+        private final Node els;
+        If(Node cond, Node thn, Node els) {
+            this.cond = cond;
+            this.thn = thn;
+            this.els = els;
+        }
+        long eval(Frame f) {
+            if (cond.evalBoolean(f)) return thn.eval(f);
+            if (els != null) return els.eval(f);
+            return NULL_BITS;
+        }
+    }
+
+    static final class While extends Node {
+        private final Node cond;
+        private final Node body;
+        While(Node cond, Node body) {
+            this.cond = cond;
+            this.body = body;
+        }
+        long eval(Frame f) {
+            long res = NULL_BITS;
+            Object ref = null;
+            while (cond.evalBoolean(f)) {
+                res = body.eval(f);
+                ref = f.engine.ref;
+            }
+            // The condition may have overwritten the register
+            f.engine.ref = ref;
+            return res;
+        }
+    }
+
+    static final class Seq extends Node {
+        private final Node e1;
+        private final Node e2;
+        Seq(Node e1, Node e2) {
+            this.e1 = e1;
+            this.e2 = e2;
+        }
+        long eval(Frame f) {
+            e1.eval(f);
+            return e2.eval(f);
+        }
+    }
+
+    static final class Block extends Node {
+        private final Node[] stmts;
+        Block(Node[] stmts) {
+            this.stmts = stmts;
+        }
+        long eval(Frame f) {
+            int last = stmts.length - 1;
+            for (int i = 0; i < last; i++) {
+                stmts[i].eval(f);
+            }
+            return stmts[last].eval(f);
+        }
+    }
+
+    static final class Print extends Node {
+        private final Node exp;
+        Print(Node exp) {
+            this.exp = exp;
+        }
+        long eval(Frame f) {
+            long bits = exp.eval(f);
+            System.out.println(TaggedEngine.toString(bits, f.engine.ref));
+            return bits;
+        }
+    }
+
+    /**
+     * A function declaration, which evaluates to a flat closure
+     * (see Scope).
+     */
+    static final class Function extends Node {
+        final List<Symbol> params;
+        final Node body;
+        final int slotCount;
+        final int cellCount;
+        private final Scope scope;
+        private final int[] captureFrom;
+        Function(List<Symbol> params, Node body, Scope scope) {
+            this.params = params;
+            this.body = body;
+            this.scope = scope;
+            this.slotCount = scope.getSlotCount();
+            this.cellCount = scope.getCellCount();
+            this.captureFrom = scope.getCaptureFrom();
+        }
+        long eval(Frame f) {
+            TaggedCell[] captured = NO_CELLS;
+            if (captureFrom.length > 0) {
+                captured = new TaggedCell[captureFrom.length];
+                for (int i = 0; i < captureFrom.length; i++) {
+                    int from = captureFrom[i];
+                    captured[i] = from >= 0 ? f.cells[from] : f.free[-from - 1];
+                }
+            }
+            f.engine.ref = new Closure(this, captured);
+            return REF_BITS;
+        }
+        /**
+         * Binds parameter i of a frame of this function.
+         */
+        void bindParam(Frame frame, int i, long bits, Object ref) {
+            Scope.Kind kind = scope.isCaptured(i) ? Scope.Kind.CELL : Scope.Kind.SLOT;
+            frame.define(kind, scope.position(i), bits, ref);
+        }
+    }
+
+    static final class Call extends Node {
+        private final Node f;
+        private final Node[] args;
+        Call(Node f, Node[] args) {
+            this.f = f;
+            this.args = args;
+        }
+        long eval(Frame caller) {
+            TaggedEngine engine = caller.engine;
+            long fbits = f.eval(caller);
+            Object fn = engine.ref;
+            if (tag(fbits) == REF && fn instanceof BuiltinVal) {
+                return callBuiltin((BuiltinVal) fn, caller);
+            }
+            if (tag(fbits) != REF || !(fn instanceof Closure)) {
+                throw new ClassCastException(TaggedEngine.toString(fbits, fn) + " is not a function");
+            }
+            Closure closure = (Closure) fn;
+            Function function = closure.function;
+            int paramCount = function.params.size();
+            Frame frame = engine.push(function, closure.free);
+            try {
+                for (int i = 0; i < args.length; i++) {
+                    long bits = args[i].eval(caller);
+                    if (i < paramCount) function.bindParam(frame, i, bits, engine.ref);
+                }
+                if (args.length < paramCount) {
+                    // As with a ClosureVal, every parameter needs an argument
+                    throw new IndexOutOfBoundsException("Index " + args.length
+                            + " out of bounds for length " + args.length);
+                }
+                return function.body.eval(frame);
+            } finally {
+                engine.pop(frame);
+            }
+        }
+        private long callBuiltin(BuiltinVal builtin, Frame caller) {
+            builtin.checkArgs(args.length);
+            Value a = null;
+            Value b = null;
+            for (int i = 0; i < args.length; i++) {
+                long bits = args[i].eval(caller);
+                if (i == 0) a = toValue(bits, caller.engine.ref);
+                else if (i == 1) b = toValue(bits, caller.engine.ref);
+            }
+            return caller.engine.result(builtin.call(a, b));
+        }
+    }
+
+    /**
+     * An array literal, unboxed if every element is an int.
+     */
+    static final class ArrayLit extends Node {
+        private final Node[] elems;
+        ArrayLit(Node[] elems) {
+            this.elems = elems;
+        }
+        long eval(Frame f) {
+            int[] ints = new int[elems.length];
+            Value[] vals = null;
+            for (int i = 0; i < elems.length; i++) {
+                long bits = elems[i].eval(f);
+                if (vals == null && tag(bits) == INT) {
+                    ints[i] = payload(bits);
+                    continue;
+                }
+                if (vals == null) {
+                    vals = new Value[elems.length];
+                    for (int j = 0; j < i; j++) {
+                        vals[j] = IntVal.valueOf(ints[j]);
+                    }
+                }
+                vals[i] = toValue(bits, f.engine.ref);
+            }
+            f.engine.ref = vals == null ? new ArrayVal(ints) : new ArrayVal(vals);
+            return REF_BITS;
+        }
+    }
+
+    /**
+     * The array an encoded value stands for, or an error.
+     */
+    static ArrayVal toArray(long bits, Object ref) {
+        return IndexExpr.toArray(toValue(bits, ref));
+    }
+
+    /**
+     * An index of an array must be an int.
+     */
+    static int toIndex(long bits, Object ref) {
+        if (tag(bits) == INT) return payload(bits);
+        return IndexExpr.toIndex(toValue(bits, ref));
+    }
+
+    /**
+     * Reading an element of an array.  Elements of an int array are
+     * read straight into the long.
+     */
+    static final class Index extends Node {
+        private final Node array;
+        private final Node index;
+        Index(Node array, Node index) {
+            this.array = array;
+            this.index = index;
+        }
+        long eval(Frame f) {
+            long abits = array.eval(f);
+            ArrayVal a = toArray(abits, f.engine.ref);
+            long ibits = index.eval(f);
+            int i = toIndex(ibits, f.engine.ref);
+            if (a.isIntArray()) return ofInt(a.getInt(i));
+            return f.engine.result(a.get(i));
+        }
+    }
+
+    /**
+     * Updating an element of an array.  An int is stored into an int
+     * array without boxing.
+     */
+    static final class IndexSet extends Node {
+        private final Node array;
+        private final Node index;
+        private final Node e;
+        IndexSet(Node array, Node index, Node e) {
+            this.array = array;
+            this.index = index;
+            this.e = e;
+        }
+        long eval(Frame f) {
+            long abits = array.eval(f);
+            ArrayVal a = toArray(abits, f.engine.ref);
+            long ibits = index.eval(f);
+            int i = toIndex(ibits, f.engine.ref);
+            long bits = e.eval(f);
+            if (tag(bits) == INT && a.isIntArray()) {
+                a.setInt(i, payload(bits));
+            } else {
+                a.set(i, toValue(bits, f.engine.ref));
+            }
+            return bits;
+        }
+    }
+
+    /**
+     * A list literal, built as PairVals like a ListExpr.
+     */
+    static final class ListLit extends Node {
+        private final Node[] elems;
+        ListLit(Node[] elems) {
+            this.elems = elems;
+        }
+        long eval(Frame f) {
+            Value[] vals = new Value[elems.length];
+            for (int i = 0; i < vals.length; i++) {
+                long bits = elems[i].eval(f);
+                vals[i] = toValue(bits, f.engine.ref);
+            }
+            Value lst = NullVal.NULL;
+            for (int i = vals.length - 1; i >= 0; i--) {
+                lst = new PairVal(vals[i], lst);
+            }
+            return f.engine.result(lst);
+        }
+    }
+
+    /**
+     * An object literal, with its shape worked out by the ObjectExpr.
+     */
+    static final class ObjectLit extends Node {
+        private final Shape shape;
+        private final int[] slots;
+        private final Node[] values;
+        ObjectLit(Shape shape, int[] slots, Node[] values) {
+            this.shape = shape;
+            this.slots = slots;
+            this.values = values;
+        }
+        long eval(Frame f) {
+            Value[] vals = new Value[shape.size()];
+            for (int i = 0; i < values.length; i++) {
+                long bits = values[i].eval(f);
+                vals[slots[i]] = toValue(bits, f.engine.ref);
+            }
+            f.engine.ref = new ObjectVal(shape, vals);
+            return REF_BITS;
+        }
+    }
+
+    /**
+     * The object an encoded value stands for, or an error.
+     */
+    static ObjectVal toObject(long bits, Object ref) {
+        return PropExpr.toObject(toValue(bits, ref));
+    }
+
+    /**
+     * Reading a property, with an inline cache like a PropExpr.
+     */
+    static final class GetProp extends Node {
+        private final Node obj;
+        private final Symbol name;
+        private PropertyCache cache;
+        GetProp(Node obj, Symbol name) {
+            this.obj = obj;
+            this.name = name;
+        }
+        long eval(Frame f) {
+            long obits = obj.eval(f);
+            ObjectVal o = toObject(obits, f.engine.ref);
+            PropertyCache c = cache;
+            if (c == null || c.shape != o.getShape()) {
+                c = PropertyCache.forRead(o.getShape(), name);
+                cache = c;
+            }
+            return f.engine.result(c.index < 0 ? NullVal.NULL : o.getSlot(c.index));
+        }
+    }
+
+    /**
+     * Assigning a property, with an inline cache like a PropAssignExpr.
+     */
+    static final class SetProp extends Node {
+        private final Node obj;
+        private final Symbol name;
+        private final Node e;
+        private PropertyCache cache;
+        SetProp(Node obj, Symbol name, Node e) {
+            this.obj = obj;
+            this.name = name;
+            this.e = e;
+        }
+        long eval(Frame f) {
+            long obits = obj.eval(f);
+            ObjectVal o = toObject(obits, f.engine.ref);
+            long bits = e.eval(f);
+            Value v = toValue(bits, f.engine.ref);
+            PropertyCache c = cache;
+            if (c == null || c.shape != o.getShape()) {
+                c = PropertyCache.forWrite(o.getShape(), name);
+                cache = c;
+            }
+            if (c.next == c.shape) {
+                o.setSlot(c.index, v);
+            } else {
+                o.add(c.next, c.index, v);
+            }
+            return bits;
+        }
+    }
+
+    /**
+     * A closure of the tagged engine: a function and the cells
+     * of its free variables.  It is a Value so that it can be stored
+     * in lists and passed to builtins.
+     */
+    static final class Closure implements Value {
+        final Function function;
+        final TaggedCell[] free;
+        Closure(Function function, TaggedCell[] free) {
+            this.function = function;
+            this.free = free;
+        }
+        @Override
+        public String toString() {
+            String s = "function(";
+            String sep = "";
+            for (Symbol param : function.params) {
+                s += sep + param;
+                sep = ",";
+            }
+            s += ") {...};";
+            return s;
+        }
+    }
+}
+
+/**
+ * A cell of the tagged engine, holding an encoded value
+ * and the object that goes with a REF.
+ */
+class TaggedCell {
+    long bits;
+    Object ref;
+    // Holds a builtin, which a declaration may replace
+    boolean builtin;
+
+    long get(TaggedEngine engine) {
+        if (TaggedEngine.tag(bits) == TaggedEngine.REF) engine.ref = ref;
+        return bits;
+    }
+
+    void set(long bits, Object ref) {
+        this.bits = bits;
+        this.ref = TaggedEngine.tag(bits) == TaggedEngine.REF ? ref : null;
+        this.builtin = false;
+    }
+}
@@ -1,12 +1,73 @@
 package edu.sjsu.fwjs;
 
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
 
 /**
  * Values in FWJS.
  * Evaluating a FWJS expression should return a FWJS value.
+ *
+ * Values are immutable, except for arrays (ArrayVal) and objects
+ * (ObjectVal), which are updated in place without any synchronization.
+ * Threads sharing a concurrent global environment can pass the
+ * immutable values around freely, and can share an array or an object
+ * as long as no thread updates it while others use it (for example,
+ * one that is only read once built).  Updating one that other threads
+ * are using is a data race: updates can be lost, and while an array
+ * switches from ints to Values, or an object grows its slots, another
+ * thread's access can fail.
  */
-public interface Value {}
+public interface Value {
+    /**
+     * The int a value stands for as an operand of arithmetic:
+     * true is 1, false and null are 0, and a function, a list or any
+     * other reference is -1.
+     * Only valid for values that are int-like (see isIntLike).
+     */
+    static int asInt(Value v) {
+        if (v instanceof IntVal)
+            return ((IntVal) v).toInt();
+        else if (v instanceof BoolVal)
+            return ((BoolVal) v).toBoolean() ? 1 : 0;
+        else if (v == null || v instanceof NullVal)
+            return 0;
+        return -1;
+    }
+
+    /**
+     * Whether asInt gives the meaning of v as an operand.
+     * Numbers too large for an int are not int-like, so arithmetic
+     * on them is done on Values (see BinOpExpr.apply).
+     */
+    static boolean isIntLike(Value v) {
+        return !(v instanceof LongVal || v instanceof BigIntVal
+                || v instanceof DoubleVal || v instanceof StrVal);
+    }
+
+    /**
+     * The number n, as an IntVal if it fits in an int,
+     * and as a LongVal otherwise.
+     */
+    static Value ofLong(long n) {
+        if ((int) n == n) return IntVal.valueOf((int) n);
+        return new LongVal(n);
+    }
+
+    /**
+     * The number n, in the smallest of IntVal, LongVal
+     * and BigIntVal that holds it.
+     */
+    static Value ofBigInteger(BigInteger n) {
+        if (n.bitLength() < 64) return ofLong(n.longValue());
+        return new BigIntVal(n);
+    }
+}
 
 //NOTE: Using package access so that all implementations of Value
 //can be included in the same file.
@@ -15,8 +76,16 @@ public interface Value {}
  * Boolean values.
  */
 class BoolVal implements Value {
-    private boolean boolVal;
+    public static final BoolVal TRUE = new BoolVal(true);
+    public static final BoolVal FALSE = new BoolVal(false);
+    private final boolean boolVal;
     public BoolVal(boolean b) { this.boolVal = b; }
+    /**
+     * Returns the canonical TRUE or FALSE instead of allocating.
+     */
+    public static BoolVal valueOf(boolean b) {
+        return b ? TRUE : FALSE;
+    }
     public boolean toBoolean() { return this.boolVal; }
     @Override
     public boolean equals(Object that) {
@@ -24,17 +93,44 @@ class BoolVal implements Value {
         return this.boolVal == ((BoolVal) that).boolVal;
     }
     @Override
+    public int hashCode() {
+        return Boolean.hashCode(this.boolVal);
+    }
+    @Override
     public String toString() {
         return "" + this.boolVal;
     }
 }
 
 /**
- * Numbers.  Only integers are supported.
+ * Integers that fit in an int.  Arithmetic that overflows an int gives
+ * a LongVal or a BigIntVal, and numbers with a fraction or an exponent
+ * are DoubleVals.
  */
 class IntVal implements Value {
-    private int i;
+    /**
+     * Values from CACHE_LOW to CACHE_HIGH are preallocated.  The upper
+     * bound can be raised with -Dfwjs.intcache.high=N for programs
+     * that count higher.
+     */
+    static final int CACHE_LOW = -128;
+    static final int CACHE_HIGH = Math.max(127, Integer.getInteger("fwjs.intcache.high", 1023));
+    private static final IntVal[] CACHE = new IntVal[CACHE_HIGH - CACHE_LOW + 1];
+    static {
+        for (int k = 0; k < CACHE.length; k++) {
+            CACHE[k] = new IntVal(k + CACHE_LOW);
+        }
+    }
+
+    private final int i;
     public IntVal(int i) { this.i = i; }
+    /**
+     * Returns the IntVal for i, shared if i is small enough to be cached.
+     */
+    public static IntVal valueOf(int i) {
+        if (i >= CACHE_LOW && i <= CACHE_HIGH) return CACHE[i - CACHE_LOW];
+        return new IntVal(i);
+    }
     public int toInt() { return this.i; }
     @Override
     public boolean equals(Object that) {
@@ -42,17 +138,193 @@ class IntVal implements Value {
         return this.i == ((IntVal) that).i;
     }
     @Override
+    public int hashCode() {
+        return Integer.hashCode(this.i);
+    }
+    @Override
     public String toString() {
         return "" + this.i;
     }
 }
 
+/**
+ * Integers that do not fit in an int.  Arithmetic on ints is promoted
+ * to a LongVal only when it overflows, and a result that fits in an
+ * int again is an IntVal (see Value.ofLong).
+ */
+class LongVal implements Value {
+    private final long l;
+    public LongVal(long l) { this.l = l; }
+    public long toLong() { return this.l; }
+    @Override
+    public boolean equals(Object that) {
+        if (!(that instanceof LongVal)) return false;
+        return this.l == ((LongVal) that).l;
+    }
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.l);
+    }
+    @Override
+    public String toString() {
+        return "" + this.l;
+    }
+}
+
+/**
+ * Double-precision floating-point numbers.
+ */
+class DoubleVal implements Value {
+    private final double d;
+    public DoubleVal(double d) { this.d = d; }
+    public double toDouble() { return this.d; }
+    @Override
+    public boolean equals(Object that) {
+        if (!(that instanceof DoubleVal)) return false;
+        return Double.compare(this.d, ((DoubleVal) that).d) == 0;
+    }
+    @Override
+    public int hashCode() {
+        return Double.hashCode(this.d);
+    }
+    @Override
+    public String toString() {
+        return "" + this.d;
+    }
+}
+
+/**
+ * Strings.
+ *
+ * Concatenating two strings builds a rope, a node holding both halves,
+ * instead of copying their characters.  The characters are copied once,
+ * when the string is first used as a whole (for instance when printed),
+ * so a loop that appends to a string takes linear time rather than
+ * quadratic.  The flattened string is cached; the halves are kept, so
+ * that a StrVal is immutable like other values.
+ */
+class StrVal implements Value {
+    // Concatenations shorter than this are copied right away
+    private static final int MIN_ROPE_LENGTH = 32;
+    private static final ConcurrentHashMap<String,StrVal> LITERALS =
+        new ConcurrentHashMap<String,StrVal>();
+
+    private final StrVal left;
+    private final StrVal right;
+    private final int length;
+    // The characters, once flattened; racing threads compute the same string
+    private String flat;
+
+    public StrVal(String s) {
+        this.left = null;
+        this.right = null;
+        this.length = s.length();
+        this.flat = s;
+    }
+    private StrVal(StrVal left, StrVal right) {
+        this.left = left;
+        this.right = right;
+        this.length = left.length + right.length;
+    }
+
+    /**
+     * The StrVal of a string literal.  Literals are interned, so every
+     * occurrence of the same literal is the same value.
+     */
+    public static StrVal literal(String s) {
+        return LITERALS.computeIfAbsent(s, StrVal::new);
+    }
+
+    public static StrVal concat(StrVal a, StrVal b) {
+        if (a.length == 0) return b;
+        if (b.length == 0) return a;
+        if (a.length + b.length < MIN_ROPE_LENGTH) {
+            return new StrVal(a.toString().concat(b.toString()));
+        }
+        return new StrVal(a, b);
+    }
+
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public String toString() {
+        String s = this.flat;
+        if (s == null) {
+            s = flatten();
+            this.flat = s;
+        }
+        return s;
+    }
+
+    /**
+     * Copies the characters of the leaves, left to right.  Ropes built
+     * by a loop are deep, so the tree is walked with an explicit stack.
+     */
+    private String flatten() {
+        StringBuilder sb = new StringBuilder(this.length);
+        ArrayDeque<StrVal> todo = new ArrayDeque<StrVal>();
+        todo.push(this);
+        while (!todo.isEmpty()) {
+            StrVal node = todo.pop();
+            String s = node.flat;
+            if (s != null) {
+                sb.append(s);
+            } else {
+                todo.push(node.right);
+                todo.push(node.left);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        if (this == that) return true;
+        if (!(that instanceof StrVal)) return false;
+        StrVal other = (StrVal) that;
+        return this.length == other.length && this.toString().equals(other.toString());
+    }
+    @Override
+    public int hashCode() {
+        return this.toString().hashCode();
+    }
+}
+
+/**
+ * Integers that do not fit in a long.
+ */
+class BigIntVal implements Value {
+    private final BigInteger b;
+    public BigIntVal(BigInteger b) { this.b = b; }
+    public BigInteger toBigInteger() { return this.b; }
+    @Override
+    public boolean equals(Object that) {
+        if (!(that instanceof BigIntVal)) return false;
+        return this.b.equals(((BigIntVal) that).b);
+    }
+    @Override
+    public int hashCode() {
+        return this.b.hashCode();
+    }
+    @Override
+    public String toString() {
+        return this.b.toString();
+    }
+}
+
 class NullVal implements Value {
+    public static final NullVal NULL = new NullVal();
     @Override
     public boolean equals(Object that) {
         return (that instanceof NullVal);
     }
     @Override
+    public int hashCode() {
+        return 0;
+    }
+    @Override
     public String toString() {
         return "null";
     }
@@ -63,17 +335,31 @@ class NullVal implements Value {
  * Note that a closure remembers its surrounding scope.
  */
 class ClosureVal implements Value {
-    private List<String> params;
-    private Expression body;
-    private Environment outerEnv;
+    private final List<Symbol> params;
+    private final Expression body;
+    private final Environment outerEnv;
+    private final Scope scope;
+    private final Cell[] captured;
     /**
      * The environment is the environment where the function was created.
      * This design is what makes this expression a closure.
      */
-    public ClosureVal(List<String> params, Expression body, Environment env) {
+    public ClosureVal(List<Symbol> params, Expression body, Environment env) {
+        this(params, body, env, null, null);
+    }
+    /**
+     * A closure of a function whose variables have been resolved.
+     * Rather than the whole environment where the function was created,
+     * it keeps only the global environment and the cells of the
+     * variables the function uses from enclosing functions.
+     */
+    public ClosureVal(List<Symbol> params, Expression body, Environment globalEnv,
+            Scope scope, Cell[] captured) {
         this.params = params;
         this.body = body;
-        this.outerEnv = env;
+        this.outerEnv = globalEnv;
+        this.scope = scope;
+        this.captured = captured;
     }
     public String toString() {
         String s = "function(";
@@ -85,12 +371,54 @@ class ClosureVal implements Value {
         s += ") {...};";
         return s;
     }
+    public Expression getBody() {
+        return this.body;
+    }
+    /**
+     * Applies the closure to args, evaluated in env.
+     * For a resolved function the arguments are evaluated straight into
+     * a frame borrowed from the FrameStack, so the call itself allocates
+     * nothing unless the function has locals captured by a closure.
+     */
+    public Value apply(Environment env, List<Expression> args) {
+        if (scope == null || args.size() < params.size()) {
+            List<Value> argVals = new ArrayList<Value>();
+            // Not an iterator: an argument may replace itself in the list
+            for (int i = 0; i < args.size(); i++) {
+                argVals.add(args.get(i).evaluate(env));
+            }
+            return apply(argVals);
+        }
+
+        // Globals are those of the caller, so that a function defined in a
+        // prelude sees the globals of the fork it is called from.
+        FrameStack stack = env.getStack();
+        Environment frame = stack.push(env.getGlobal(), scope, captured);
+        try {
+            for (int i = 0; i < args.size(); i++) {
+                Value v = args.get(i).evaluate(env);
+                if (i < params.size()) frame.defineLocal(i, v);
+            }
+            return body.evaluate(frame);
+        } finally {
+            stack.pop(frame);
+        }
+    }
     /**
      * To apply a closure, first create a new local environment, with an outer scope
      * of the environment where the function was created. Each parameter should
      * be bound to its matching argument and added to the new local environment.
      */
     public Value apply(List<Value> argVals) {
+      if (scope != null) {
+          // Parameters are the first locals of the scope
+          Environment newEnv = new Environment(outerEnv, scope, captured);
+          for (int i = 0; i < params.size(); i++) {
+              newEnv.defineLocal(i, argVals.get(i));
+          }
+          return body.evaluate(newEnv);
+      }
+
       Environment newEnv = new Environment(outerEnv);  // New local environment with outer environment
 
       // Bind parameters to matching arguments in the new local environment
@@ -101,3 +429,272 @@ class ClosureVal implements Value {
       return body.evaluate(newEnv);
     }
 }
+
+/**
+ * A cell of a list: a head value and the rest of the list.
+ * The empty list is null, so a list of n values is n PairVals.
+ */
+class PairVal implements Value {
+    private final Value head;
+    private final Value tail;
+    public PairVal(Value head, Value tail) {
+        this.head = head;
+        this.tail = tail;
+    }
+    public Value getHead() {
+        return this.head;
+    }
+    public Value getTail() {
+        return this.tail;
+    }
+    @Override
+    public boolean equals(Object that) {
+        Value a = this;
+        Object b = that;
+        // Iterative, so long lists cannot overflow the stack
+        while (a instanceof PairVal && b instanceof PairVal) {
+            if (!((PairVal) a).head.equals(((PairVal) b).head)) return false;
+            a = ((PairVal) a).tail;
+            b = ((PairVal) b).tail;
+        }
+        return a.equals(b);
+    }
+    @Override
+    public int hashCode() {
+        int h = 1;
+        Value v = this;
+        for (; v instanceof PairVal; v = ((PairVal) v).tail) {
+            h = 31 * h + ((PairVal) v).head.hashCode();
+        }
+        return 31 * h + v.hashCode();
+    }
+    /**
+     * Prints as [1, 2, 3], or as [1, 2 | x] if the list does not end in null.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        String sep = "";
+        Value v = this;
+        for (; v instanceof PairVal; v = ((PairVal) v).tail) {
+            sb.append(sep).append(((PairVal) v).head);
+            sep = ", ";
+        }
+        if (!(v instanceof NullVal)) sb.append(" | ").append(v);
+        return sb.append("]").toString();
+    }
+}
+
+/**
+ * A function implemented in Java (see Builtins).
+ * Like a closure, its arguments are all evaluated, and any beyond
+ * its parameters are ignored.  Builtins take one or two arguments,
+ * which are passed without building a list.
+ */
+class BuiltinVal implements Value {
+    private final String name;
+    private final List<String> params;
+    private final UnaryOperator<Value> unary;
+    private final BinaryOperator<Value> binary;
+    private BuiltinVal(String name, List<String> params,
+            UnaryOperator<Value> unary, BinaryOperator<Value> binary) {
+        this.name = name;
+        this.params = params;
+        this.unary = unary;
+        this.binary = binary;
+    }
+    public static BuiltinVal of(String name, String param, UnaryOperator<Value> f) {
+        return new BuiltinVal(name, List.of(param), f, null);
+    }
+    public static BuiltinVal of(String name, String param1, String param2, BinaryOperator<Value> f) {
+        return new BuiltinVal(name, List.of(param1, param2), null, f);
+    }
+    public String getName() {
+        return this.name;
+    }
+    public int getArity() {
+        return this.params.size();
+    }
+    /**
+     * Calls the builtin with the values of its parameters.
+     * b is ignored by a builtin of one parameter.
+     */
+    public Value call(Value a, Value b) {
+        return this.unary != null ? this.unary.apply(a) : this.binary.apply(a, b);
+    }
+    /**
+     * Applies the builtin to args, evaluated in env.
+     */
+    public Value apply(Environment env, List<Expression> args) {
+        checkArgs(args.size());
+        Value a = args.get(0).evaluate(env);
+        Value b = args.size() > 1 ? args.get(1).evaluate(env) : null;
+        for (int i = 2; i < args.size(); i++) {
+            args.get(i).evaluate(env);
+        }
+        return call(a, b);
+    }
+    /**
+     * Throws a RuntimeException unless count arguments are enough.
+     */
+    public void checkArgs(int count) {
+        if (count < getArity()) {
+            throw new RuntimeException(this.name + " expects " + getArity() + " arguments");
+        }
+    }
+    public String toString() {
+        return "function(" + String.join(",", this.params) + ") {...};";
+    }
+}
+
+/**
+ * Arrays, which are mutable and compared by identity.
+ * While every element is an int, the elements are stored unboxed in
+ * an int[]; storing anything else switches the array to a Value[]
+ * for good.
+ */
+class ArrayVal implements Value {
+    private int[] ints;
+    private Value[] vals;
+    public ArrayVal(int[] ints) {
+        this.ints = ints;
+    }
+    public ArrayVal(Value[] vals) {
+        this.vals = vals;
+    }
+    /**
+     * An array of the given values, unboxed if they are all ints.
+     */
+    public static ArrayVal of(Value[] vals) {
+        int[] ints = new int[vals.length];
+        for (int i = 0; i < vals.length; i++) {
+            if (!(vals[i] instanceof IntVal)) return new ArrayVal(vals);
+            ints[i] = ((IntVal) vals[i]).toInt();
+        }
+        return new ArrayVal(ints);
+    }
+    public int length() {
+        return this.ints != null ? this.ints.length : this.vals.length;
+    }
+    /**
+     * Whether the elements are stored as ints, so getInt and setInt
+     * may be used.
+     */
+    public boolean isIntArray() {
+        return this.ints != null;
+    }
+    public int getInt(int i) {
+        return this.ints[checkIndex(i)];
+    }
+    public void setInt(int i, int v) {
+        this.ints[checkIndex(i)] = v;
+    }
+    public Value get(int i) {
+        checkIndex(i);
+        if (this.ints != null) return IntVal.valueOf(this.ints[i]);
+        Value v = this.vals[i];
+        return v == null ? NullVal.NULL : v;
+    }
+    public void set(int i, Value v) {
+        checkIndex(i);
+        if (this.ints != null) {
+            if (v instanceof IntVal) {
+                this.ints[i] = ((IntVal) v).toInt();
+                return;
+            }
+            generalize();
+        }
+        this.vals[i] = v;
+    }
+    private void generalize() {
+        this.vals = new Value[this.ints.length];
+        for (int i = 0; i < this.ints.length; i++) {
+            this.vals[i] = IntVal.valueOf(this.ints[i]);
+        }
+        this.ints = null;
+    }
+    private int checkIndex(int i) {
+        if (i < 0 || i >= length()) {
+            throw new RuntimeException("Array index " + i + " out of bounds for length " + length());
+        }
+        return i;
+    }
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[|");
+        for (int i = 0; i < length(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(get(i));
+        }
+        return sb.append("|]").toString();
+    }
+}
+
+/**
+ * Objects, which are mutable and compared by identity.
+ * The names of the properties are in the object's Shape, which is
+ * shared with other objects, and the values are in slots.
+ */
+class ObjectVal implements Value {
+    private Shape shape;
+    private Value[] slots;
+    public ObjectVal() {
+        this(Shape.EMPTY, new Value[0]);
+    }
+    /**
+     * An object of the given shape, with a value in every slot.
+     */
+    public ObjectVal(Shape shape, Value[] slots) {
+        this.shape = shape;
+        this.slots = slots;
+    }
+    public Shape getShape() {
+        return this.shape;
+    }
+    public Value getSlot(int slot) {
+        return this.slots[slot];
+    }
+    public void setSlot(int slot, Value v) {
+        this.slots[slot] = v;
+    }
+    /**
+     * Adds a property, moving this object to the shape next,
+     * which has the property in the given slot.
+     */
+    public void add(Shape next, int slot, Value v) {
+        if (slot >= this.slots.length) {
+            this.slots = Arrays.copyOf(this.slots, Math.max(4, 2 * this.slots.length));
+        }
+        this.slots[slot] = v;
+        this.shape = next;
+    }
+    /**
+     * Reads a property without an inline cache.
+     * A missing property reads as null.
+     */
+    public Value get(Symbol name) {
+        int slot = this.shape.indexOf(name);
+        return slot < 0 ? NullVal.NULL : this.slots[slot];
+    }
+    /**
+     * Assigns a property without an inline cache, adding it if needed.
+     */
+    public void put(Symbol name, Value v) {
+        int slot = this.shape.indexOf(name);
+        if (slot >= 0) {
+            this.slots[slot] = v;
+        } else {
+            Shape next = this.shape.with(name);
+            add(next, next.indexOf(name), v);
+        }
+    }
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < this.shape.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(this.shape.nameAt(i)).append(": ").append(this.slots[i]);
+        }
+        return sb.append("}").toString();
+    }
+}
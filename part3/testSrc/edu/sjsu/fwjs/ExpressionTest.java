@@ -2,9 +2,12 @@ package edu.sjsu.fwjs;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.antlr.v4.runtime.CharStreams;
 import org.junit.Test;
 
 public class ExpressionTest {
@@ -208,5 +211,651 @@ public class ExpressionTest {
             fail();
         } catch (Exception e) {}
     }
-}
 
+    @Test
+    // x=112358; (function() { var x=42; x; })(); x;  /* resolved to slots */
+    public void testResolvedScope() {
+        Environment env = new Environment();
+        VarDeclExpr newVar = new VarDeclExpr("x", new ValueExpr(new IntVal(112358)));
+        FunctionDeclExpr f = new FunctionDeclExpr(new ArrayList<String>(),
+                new SeqExpr(new VarDeclExpr("x", new ValueExpr(new IntVal(42))),
+                        new VarExpr("x")));
+        SeqExpr seq = new SeqExpr(newVar, new FunctionAppExpr(f, new ArrayList<Expression>()));
+        Value v = Resolver.resolve(seq).evaluate(env);
+        assertEquals(new IntVal(42), v);
+        assertEquals(new IntVal(112358), env.resolveVar("x"));
+    }
+
+    @Test
+    // (function(x) { (function() { x = x + 1; })(); x; })(1);
+    public void testResolvedOuterAssign() {
+        Environment env = new Environment();
+        List<String> params = new ArrayList<String>();
+        params.add("x");
+        FunctionDeclExpr inc = new FunctionDeclExpr(new ArrayList<String>(),
+                new AssignExpr("x", new BinOpExpr(Op.ADD,
+                        new VarExpr("x"),
+                        new ValueExpr(new IntVal(1)))));
+        FunctionDeclExpr f = new FunctionDeclExpr(params,
+                new SeqExpr(new FunctionAppExpr(inc, new ArrayList<Expression>()),
+                        new VarExpr("x")));
+        List<Expression> args = new ArrayList<Expression>();
+        args.add(new ValueExpr(new IntVal(1)));
+        Expression app = Resolver.resolve(new FunctionAppExpr(f, args));
+        assertEquals(new IntVal(2), app.evaluate(env));
+        assertEquals(new NullVal(), env.resolveVar("x"));
+    }
+
+    @Test
+    public void testUndefinedVsNull() {
+        Environment env = new Environment();
+        env.createVar("x", new NullVal());
+        Environment local = new Environment(env);
+        assertNotSame(Environment.UNDEFINED, local.lookupVar("x"));
+        assertSame(Environment.UNDEFINED, local.lookupVar("y"));
+        assertEquals(new NullVal(), local.resolveVar("y"));
+    }
+
+    @Test
+    // var f = function() { x; }; x = 1; f(); x = 2; f();
+    public void testGlobalCacheInvalidated() {
+        Environment env = new Environment();
+        FunctionDeclExpr f = new FunctionDeclExpr(new ArrayList<String>(), new VarExpr("x"));
+        Expression decl = Resolver.resolve(new VarDeclExpr("f", f));
+        Expression call = Resolver.resolve(new FunctionAppExpr(new VarExpr("f"),
+                new ArrayList<Expression>()));
+        decl.evaluate(env);
+        assertEquals(new NullVal(), call.evaluate(env));
+        env.updateVar("x", new IntVal(1));
+        assertEquals(new IntVal(1), call.evaluate(env));
+        assertEquals(new IntVal(1), call.evaluate(env));
+        env.updateVar("x", new IntVal(2));
+        assertEquals(new IntVal(2), call.evaluate(env));
+        assertEquals(new IntVal(2), call.evaluate(new Environment(env)));
+    }
+
+    @Test
+    // var inc = function() { n = n + 1; }; inc(); inc();  /* n is an implicit global */
+    public void testGlobalCellAssign() {
+        Environment env = new Environment();
+        FunctionDeclExpr inc = new FunctionDeclExpr(new ArrayList<String>(),
+                new AssignExpr("n", new BinOpExpr(Op.ADD,
+                        new VarExpr("n"),
+                        new ValueExpr(new IntVal(1)))));
+        Expression call = new FunctionAppExpr(new VarExpr("inc"), new ArrayList<Expression>());
+        Expression prog = Resolver.resolve(new SeqExpr(new VarDeclExpr("inc", inc),
+                new SeqExpr(call, call)));
+        assertEquals(new IntVal(2), prog.evaluate(env));
+        assertEquals(new IntVal(2), env.resolveVar("n"));
+        env.updateVar("n", new IntVal(10));
+        assertEquals(new IntVal(11), call.evaluate(env));
+    }
+
+    @Test
+    // var mk = function(x) { var g = function() { function() { x = x + 1; }; };
+    //                        var inc = g(); inc(); inc(); x; };
+    // mk(5);
+    public void testFlatClosureSharesCells() {
+        Environment env = new Environment();
+        FunctionDeclExpr incX = new FunctionDeclExpr(new ArrayList<String>(),
+                new AssignExpr("x", new BinOpExpr(Op.ADD,
+                        new VarExpr("x"),
+                        new ValueExpr(new IntVal(1)))));
+        FunctionDeclExpr g = new FunctionDeclExpr(new ArrayList<String>(), incX);
+        Expression callInc = new FunctionAppExpr(new VarExpr("inc"), new ArrayList<Expression>());
+        List<String> params = new ArrayList<String>();
+        params.add("x");
+        FunctionDeclExpr mk = new FunctionDeclExpr(params,
+                new SeqExpr(new VarDeclExpr("g", g),
+                new SeqExpr(new VarDeclExpr("inc",
+                        new FunctionAppExpr(new VarExpr("g"), new ArrayList<Expression>())),
+                new SeqExpr(callInc,
+                new SeqExpr(callInc, new VarExpr("x"))))));
+        List<Expression> args = new ArrayList<Expression>();
+        args.add(new ValueExpr(new IntVal(5)));
+        Expression prog = Resolver.resolve(new FunctionAppExpr(mk, args));
+        assertEquals(new IntVal(7), prog.evaluate(env));
+        assertEquals(new IntVal(7), prog.evaluate(env));
+    }
+
+    @Test
+    // var mk = function() { var i = 0; function() { i = i + 1; }; };
+    // var a = mk(); var b = mk(); a(); a(); b();
+    public void testReusedFramesGetFreshCells() {
+        Environment env = new Environment();
+        FunctionDeclExpr mk = new FunctionDeclExpr(new ArrayList<String>(),
+                new SeqExpr(new VarDeclExpr("i", new ValueExpr(new IntVal(0))),
+                        new FunctionDeclExpr(new ArrayList<String>(),
+                                new AssignExpr("i", new BinOpExpr(Op.ADD,
+                                        new VarExpr("i"),
+                                        new ValueExpr(new IntVal(1)))))));
+        Expression callA = new FunctionAppExpr(new VarExpr("a"), new ArrayList<Expression>());
+        Expression callB = new FunctionAppExpr(new VarExpr("b"), new ArrayList<Expression>());
+        Expression prog = Resolver.resolve(new SeqExpr(new VarDeclExpr("mk", mk),
+                new SeqExpr(new VarDeclExpr("a",
+                        new FunctionAppExpr(new VarExpr("mk"), new ArrayList<Expression>())),
+                new VarDeclExpr("b",
+                        new FunctionAppExpr(new VarExpr("mk"), new ArrayList<Expression>())))));
+        prog.evaluate(env);
+        assertEquals(new IntVal(1), callA.evaluate(env));
+        assertEquals(new IntVal(2), callA.evaluate(env));
+        assertEquals(new IntVal(1), callB.evaluate(env));
+    }
+
+    @Test
+    // var f = function(x) { var y = x; var y = x; };  /* throws every call */
+    public void testFrameReleasedOnError() {
+        Environment env = new Environment();
+        List<String> params = new ArrayList<String>();
+        params.add("x");
+        VarDeclExpr decl = new VarDeclExpr("y", new VarExpr("x"));
+        FunctionDeclExpr f = new FunctionDeclExpr(params, new SeqExpr(decl, decl));
+        List<Expression> args = new ArrayList<Expression>();
+        args.add(new ValueExpr(new IntVal(1)));
+        Expression app = Resolver.resolve(new FunctionAppExpr(f, args));
+        for (int i = 0; i < 2; i++) {
+            try {
+                app.evaluate(env);
+                fail();
+            } catch (RuntimeException e) {
+                assertEquals("Variable has been defined in the current scope previously",
+                        e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testManyGlobals() {
+        Environment env = new Environment();
+        for (int i = 0; i < 100; i++) {
+            env.createVar("v" + i, new IntVal(i));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(new IntVal(i), env.resolveVar("v" + i));
+        }
+        env.updateVar(new String("v42"), new IntVal(-1));
+        assertEquals(new IntVal(-1), new VarExpr("v42").evaluate(env));
+        try {
+            env.createVar(new String("v7"), new IntVal(0));
+            fail();
+        } catch (RuntimeException e) {}
+    }
+
+    @Test
+    public void testSymbolsInterned() {
+        Symbol s = Symbol.of("counter");
+        assertSame(s, Symbol.of(new String("counter")));
+        assertNotSame(s, Symbol.of("counter2"));
+        assertTrue(Symbol.of("counter_fresh").getId() > s.getId());
+        Environment env = new Environment();
+        env.createVar(s, new IntVal(1));
+        assertEquals(new IntVal(1), env.resolveVar("counter"));
+    }
+
+    @Test
+    // Prelude: var n = 0; var inc = function() { n = n + 1; };
+    // each fork then runs: inc(); inc();
+    public void testForkedGlobals() {
+        Environment prelude = new Environment();
+        FunctionDeclExpr inc = new FunctionDeclExpr(new ArrayList<String>(),
+                new AssignExpr("n", new BinOpExpr(Op.ADD,
+                        new VarExpr("n"),
+                        new ValueExpr(new IntVal(1)))));
+        Resolver.resolve(new SeqExpr(new VarDeclExpr("n", new ValueExpr(new IntVal(0))),
+                new VarDeclExpr("inc", inc))).evaluate(prelude);
+
+        Expression call = new FunctionAppExpr(new VarExpr("inc"), new ArrayList<Expression>());
+        Expression run = Resolver.resolve(new SeqExpr(call, call));
+        Environment a = prelude.fork();
+        Environment b = prelude.fork();
+        assertEquals(new IntVal(2), run.evaluate(a));
+        assertEquals(new IntVal(4), run.evaluate(a));
+        assertEquals(new IntVal(2), run.evaluate(b));
+        assertEquals(new IntVal(0), prelude.resolveVar("n"));
+        assertEquals(new IntVal(4), a.resolveVar("n"));
+    }
+
+    @Test
+    public void testForkedBaseIsFrozen() {
+        Environment prelude = new Environment();
+        prelude.createVar("x", new IntVal(1));
+        Environment fork = prelude.fork();
+        try {
+            prelude.updateVar("x", new IntVal(2));
+            fail();
+        } catch (RuntimeException e) {}
+        try {
+            fork.createVar("x", new IntVal(2));
+            fail();
+        } catch (RuntimeException e) {}
+        fork.createVar("y", new IntVal(3));
+        assertEquals(new IntVal(1), fork.resolveVar("x"));
+        assertSame(Environment.NULL, prelude.resolveVar("y"));
+    }
+
+    @Test
+    public void testConcurrentGlobals() throws Exception {
+        Environment env = new Environment(true);
+        env.createVar("shared", new IntVal(7));
+        Expression read = Resolver.resolve(new VarExpr("shared"));
+        Thread[] threads = new Thread[4];
+        Throwable[] failure = new Throwable[1];
+        for (int t = 0; t < threads.length; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    // Every thread adds globals, forcing rehashes under the readers
+                    for (int i = 0; i < 500; i++) {
+                        env.createVar("t" + id + "_" + i, new IntVal(i));
+                        assertEquals(new IntVal(7), read.evaluate(env));
+                    }
+                } catch (Throwable e) {
+                    failure[0] = e;
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure[0]);
+        for (int t = 0; t < threads.length; t++) {
+            for (int i = 0; i < 500; i++) {
+                assertEquals(new IntVal(i), env.resolveVar("t" + t + "_" + i));
+            }
+        }
+    }
+
+    @Test
+    public void testCanonicalValues() {
+        Environment env = new Environment();
+        assertSame(BoolVal.TRUE, new BinOpExpr(Op.LT,
+                new ValueExpr(new IntVal(1)),
+                new ValueExpr(new IntVal(2))).evaluate(env));
+        assertSame(IntVal.valueOf(3), new BinOpExpr(Op.ADD,
+                new ValueExpr(new IntVal(1)),
+                new ValueExpr(new IntVal(2))).evaluate(env));
+        assertSame(NullVal.NULL, env.resolveVar("unbound"));
+        assertSame(IntVal.valueOf(IntVal.CACHE_LOW), IntVal.valueOf(IntVal.CACHE_LOW));
+        assertEquals(new IntVal(IntVal.CACHE_HIGH + 1), IntVal.valueOf(IntVal.CACHE_HIGH + 1));
+    }
+
+    @Test
+    // (true + null * 3) < (7 % 4)
+    public void testUnboxedEvaluation() {
+        Environment env = new Environment();
+        Expression sum = new BinOpExpr(Op.ADD,
+                new ValueExpr(new BoolVal(true)),
+                new BinOpExpr(Op.MULTIPLY,
+                        new ValueExpr(new NullVal()),
+                        new ValueExpr(new IntVal(3))));
+        Expression cmp = new BinOpExpr(Op.LT, sum,
+                new BinOpExpr(Op.MOD,
+                        new ValueExpr(new IntVal(7)),
+                        new ValueExpr(new IntVal(4))));
+        assertEquals(1, sum.evaluateInt(env));
+        assertTrue(cmp.evaluateBoolean(env));
+        assertEquals(1, cmp.evaluateInt(env));
+        try {
+            sum.evaluateBoolean(env);
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("Condition must evaluate to a boolean", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a program on the value or the tagged engine,
+     * returning what it printed.
+     */
+    private static String runProgram(String src, boolean tagged) {
+        PrintStream out = System.out;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(bytes, true));
+        try {
+            Expression prog = Interpreter.parse(CharStreams.fromString(src), true);
+            if (tagged) TaggedEngine.run(prog);
+            else prog.evaluate(new Environment());
+        } finally {
+            System.setOut(out);
+        }
+        return bytes.toString();
+    }
+
+    @Test
+    public void testTaggedEngineMatches() {
+        String src = "var mk = function() { var n = 0; function() { n = n + 1; }; };"
+            + "var c = mk(); c(); print(c());"
+            + "var fact = function(n) { if (n < 1) 1; else n * fact(n - 1); };"
+            + "print(fact(10)); print(fact); print(mk() == null); print(1 < 2);"
+            + "var i = 0; while (i < 3) { i = i + 1; } print(i); print(nothing);";
+        assertEquals(runProgram(src, false), runProgram(src, true));
+        assertEquals(7, runProgram(src, true).split("\n").length);
+    }
+
+    @Test
+    public void testOverflowPromotes() {
+        Environment env = new Environment();
+        Expression max = new ValueExpr(new IntVal(Integer.MAX_VALUE));
+        Expression sum = new BinOpExpr(Op.ADD, max, new ValueExpr(new IntVal(1)));
+        assertEquals(new LongVal(2147483648L), sum.evaluate(env));
+        Expression square = new BinOpExpr(Op.MULTIPLY,
+                new BinOpExpr(Op.MULTIPLY, sum, sum),
+                new BinOpExpr(Op.MULTIPLY, sum, sum));
+        assertEquals(new BigIntVal(java.math.BigInteger.ONE.shiftLeft(124)), square.evaluate(env));
+        // Back to an int once the result fits again
+        assertSame(IntVal.valueOf(1), new BinOpExpr(Op.SUBTRACT, sum, max).evaluate(env));
+        assertTrue(new BinOpExpr(Op.GT, square, sum).evaluateBoolean(env));
+        assertEquals("9223372036854775808", runProgram("print(9223372036854775807 + 1);", false).trim());
+    }
+
+    @Test
+    public void testNativeLists() {
+        String src = "var nums = [1, 2, 3];"
+            + "var sum = function(l) { if (isEmpty(l)) 0; else head(l) + sum(tail(l)); };"
+            + "print(sum(cons(4, nums))); print(tail(nums)); print(cons(1, 2));"
+            + "var head = function(l) { 42; }; print(head(nums));";
+        String out = runProgram(src, false);
+        assertEquals("10\n[2, 3]\n[1 | 2]\n42\n", out.replace("\r", ""));
+        assertEquals(out, runProgram(src, true));
+        Value lst = Resolver.resolve(new ListExpr(new ArrayList<Expression>(List.of(
+                new ValueExpr(new IntVal(1)), new ValueExpr(new IntVal(2)))))).evaluate(new Environment());
+        assertEquals(new PairVal(new IntVal(1), new PairVal(new IntVal(2), new NullVal())), lst);
+    }
+
+    @Test
+    public void testEqualListsHashTheSame() {
+        // 2000 is past the int cache, so the two IntVals are distinct objects
+        Value a = new PairVal(new IntVal(2000), new PairVal(BoolVal.TRUE, new NullVal()));
+        Value b = new PairVal(new IntVal(2000), new PairVal(new BoolVal(true), NullVal.NULL));
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    @Test
+    public void testArrays() {
+        String src = "var a = array(4); var i = 0;"
+            + "while (i < length(a)) { a[i] = i * i; i = i + 1; }"
+            + "print(a); print(a[1] + a[3]); a[2] = null; print(a); print([| true, 1 |]);";
+        String out = runProgram(src, false);
+        assertEquals("[|0, 1, 4, 9|]\n10\n[|0, 1, null, 9|]\n[|true, 1|]\n", out.replace("\r", ""));
+        assertEquals(out, runProgram(src, true));
+
+        ArrayVal a = ArrayVal.of(new Value[] { new IntVal(1), new IntVal(2) });
+        assertTrue(a.isIntArray());
+        a.set(0, new BoolVal(false));
+        assertFalse(a.isIntArray());
+        assertEquals(new IntVal(2), a.get(1));
+        try {
+            a.get(2);
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("Array index 2 out of bounds for length 2", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testObjects() {
+        String src = "var p = {x: 1, y: 2}; var q = {}; q.x = 3; q.y = 4;"
+            + "var i = 0; var sum = 0;"
+            + "while (i < 3) { sum = sum + p.x * q.y; p.x = p.x + 1; i = i + 1; }"
+            + "print(sum); print(q); print(q.z); q.x = true; print(q);";
+        String out = runProgram(src, false);
+        assertEquals("24\n{x: 3, y: 4}\nnull\n{x: true, y: 4}\n", out.replace("\r", ""));
+        assertEquals(out, runProgram(src, true));
+
+        // Objects that get the same properties in the same order share a shape
+        ObjectVal a = (ObjectVal) Interpreter.parse(CharStreams.fromString("{x: 1, y: 2};"))
+            .evaluate(new Environment());
+        ObjectVal b = new ObjectVal();
+        b.put(Symbol.of("x"), new IntVal(5));
+        b.put(Symbol.of("y"), new IntVal(6));
+        assertSame(a.getShape(), b.getShape());
+        assertEquals(1, a.getShape().indexOf(Symbol.of("y")));
+        assertEquals(NullVal.NULL, b.get(Symbol.of("z")));
+    }
+
+    @Test
+    public void testStrings() {
+        String src = "var s = \"\"; var i = 0;"
+            + "while (i < 20000) { s = s + \"ab\"; i = i + 1; }"
+            + "print(length(s)); print(\"n = \" + 3 + \"\\t\" + null);"
+            + "print(\"abc\" == \"ab\" + \"c\"); print(\"a\" < \"b\");";
+        String out = runProgram(src, false);
+        assertEquals("40000\nn = 3\tnull\ntrue\ntrue\n", out.replace("\r", ""));
+        assertEquals(out, runProgram(src, true));
+
+        // Literals are interned, and concatenations flatten to the same string
+        assertSame(StrVal.literal("ab"), StrVal.literal("ab"));
+        StrVal rope = StrVal.literal("");
+        for (int k = 0; k < 100000; k++) {
+            rope = StrVal.concat(rope, StrVal.literal("xy"));
+        }
+        assertEquals(200000, rope.length());
+        assertTrue(rope.toString().startsWith("xyxy"));
+        assertEquals(new StrVal(rope.toString()), rope);
+    }
+
+    @Test
+    public void testDoubles() {
+        String src = "var x = 0.0; var i = 0;"
+            + "while (i < 10) { x = x * 0.5 + 1; i = i + 1; }"
+            + "print(x < 2); print(x > 1.99);"
+            + "var f = function(a, b) { a * b + 1; };"
+            + "print(f(2, 3)); print(f(2, 1.5)); print(f(2, 3)); print(7 / 2 + 1.5e1);"
+            + "print(1.0 / 0);";
+        String out = runProgram(src, false);
+        assertEquals("true\ntrue\n7\n4.0\n7\n18.0\nInfinity\n", out.replace("\r", ""));
+        assertEquals(out, runProgram(src, true));
+    }
+
+    @Test
+    public void testConstantFolding() {
+        String src = "var a = 2; var b = a * 3 + 1; var c = 0; c = b;"
+            + "print(b); print(c);"
+            + "var f = function(a) { var k = 10; if (k > 5) a + k; else 0; };"
+            + "var g = function() { var b = 1; b = b + 1; b; };"
+            + "print(f(1)); print(g()); print(b); print(5 / 0 == 1);";
+        String out = runProgram(src.replace("5 / 0 == 1", "true"), false);
+        assertEquals("7\n7\n11\n2\n7\ntrue\n", out.replace("\r", ""));
+
+        // b is propagated and folded into print(7); c is assigned, so it is not
+        Expression prog = Interpreter.parse(CharStreams.fromString(src), true);
+        Expression[] stmts = ((BlockExpr) prog).getStatements();
+        Expression printB = ((PrintExpr) stmts[4]).getExpression();
+        assertEquals(new IntVal(7), ((ValueExpr) printB).getValue());
+        assertTrue(((PrintExpr) stmts[5]).getExpression() instanceof VarExpr);
+        // Dividing by zero is left to fail at run time
+        assertTrue(((PrintExpr) stmts[11]).getExpression() instanceof BinOpExpr);
+        // Only globals of a whole program are propagated
+        prog = Interpreter.parse(CharStreams.fromString("var x = 1; print(x);"));
+        assertTrue(((PrintExpr) ((BlockExpr) prog).getStatements()[1]).getExpression()
+                instanceof VarExpr);
+    }
+
+    @Test
+    public void testLongScript() {
+        StringBuilder src = new StringBuilder("var x = 0;\n");
+        for (int i = 0; i < 100000; i++) {
+            src.append("x = x + 1;\n");
+        }
+        src.append("print(x);\n");
+        assertEquals("100000", runProgram(src.toString(), false).trim());
+        assertEquals("100000", runProgram(src.toString(), true).trim());
+    }
+
+    @Test
+    public void testSpecializingOperators() {
+        Environment env = new Environment();
+        Expression prog = Interpreter.parse(CharStreams.fromString(
+                "var f = function(a, b) { a + b; }; var lt = function(a, b) { a < b; };"));
+        prog.evaluate(env);
+        Expression[] decls = ((BlockExpr) prog).getStatements();
+        FunctionDeclExpr f = (FunctionDeclExpr) ((VarDeclExpr) decls[0]).getExpression();
+        FunctionDeclExpr lt = (FunctionDeclExpr) ((VarDeclExpr) decls[1]).getExpression();
+        assertTrue(bodyOf(f) instanceof BinOpExpr);
+
+        assertEquals(new IntVal(3), run(env, "f(1, 2);"));
+        assertTrue(bodyOf(f) instanceof IntAddExpr);
+        assertEquals(new IntVal(7), run(env, "f(3, 4);"));
+        assertEquals(BoolVal.TRUE, run(env, "lt(1, 2);"));
+        assertTrue(bodyOf(lt) instanceof IntLtExpr);
+
+        // Overflow reverts to a generic node, which stays generic
+        assertEquals(new LongVal(2147483648L), run(env, "f(2147483647, 1);"));
+        assertFalse(bodyOf(f) instanceof IntOpExpr);
+        assertEquals(new IntVal(7), run(env, "f(3, 4);"));
+        assertFalse(bodyOf(f) instanceof IntOpExpr);
+        assertEquals(new StrVal("ab1"), run(env, "f(\"ab\", 1);"));
+        assertEquals(BoolVal.FALSE, run(env, "lt(2.5, 2);"));
+        assertFalse(bodyOf(lt) instanceof IntOpExpr);
+    }
+
+    private static Expression bodyOf(FunctionDeclExpr f) {
+        return ((BlockExpr) f.getBody()).getStatements()[0];
+    }
+
+    private static Value run(Environment env, String src) {
+        return Interpreter.parse(CharStreams.fromString(src)).evaluate(env);
+    }
+
+    @Test
+    public void testSuperinstructions() {
+        String src = "var i = 0; var tmp = 1; var num = 3;"
+            + "while (i < 5) { tmp = tmp * num; i = i + 1; }"
+            + "var big = 2147483647; big = big + 1; var s = \"a\"; s = s + 1;"
+            + "var mk = function() { var n = 0; function() { n = 1 + n; }; }; var c = mk(); c();"
+            + "print(tmp); print(big); print(s); print(c()); print(5 > i); print(i == 5);";
+        String out = runProgram(src, false);
+        assertEquals("243\n2147483648\na1\n2\nfalse\ntrue\n", out.replace("\r", ""));
+        assertEquals(out, runProgram(src, true));
+
+        Expression prog = Interpreter.parse(CharStreams.fromString(src));
+        WhileExpr loop = (WhileExpr) ((BlockExpr) prog).getStatements()[3];
+        assertTrue(loop.getCondition() instanceof CompareConstExpr);
+        Expression[] body = ((BlockExpr) loop.getBody()).getStatements();
+        assertTrue(body[0] instanceof AssignOpExpr);
+        assertTrue(body[1] instanceof IncrementExpr);
+    }
+
+    @Test
+    public void testInlining() {
+        String defs = "var k = 1; var addK = function(x) { x + k; };"
+            + "var first = function(lst) { if (isEmpty(lst)) null; else head(lst); };"
+            + "var sum = function(lst) { if (isEmpty(lst)) 0; else first(lst) + sum(tail(lst)); };"
+            + "var shadow = function(k) { addK(k); };"
+            + "var g = function(y) { var z = addK(y); z + addK(z); };";
+        String src = defs + "print(sum([1, 2, 3])); print(shadow(5)); print(g(2));";
+        String out = runProgram(src, false);
+        assertEquals("6\n6\n7\n", out.replace("\r", ""));
+        assertEquals(out, runProgram(src, true));
+
+        Environment env = new Environment();
+        Expression prog = Interpreter.parse(CharStreams.fromString(defs));
+        prog.evaluate(env);
+        Expression[] decls = ((BlockExpr) prog).getStatements();
+        FunctionDeclExpr shadow = (FunctionDeclExpr) ((VarDeclExpr) decls[4]).getExpression();
+        FunctionDeclExpr g = (FunctionDeclExpr) ((VarDeclExpr) decls[5]).getExpression();
+        assertTrue(shadow.getBody() instanceof FunctionAppExpr);
+        VarDeclExpr z = (VarDeclExpr) bodyOf(g);
+        assertTrue(z.getExpression() instanceof InlinedCallExpr);
+
+        // Another program may still assign the function
+        assertEquals(new IntVal(18), run(env, "addK = function(x) { x * 2; }; g(3);"));
+    }
+
+    @Test
+    public void testLoopHoisting() {
+        String src = "var sq = function(x) { x * x; };"
+            + "var f = function(n, k) { var i = 0; var s = 0;"
+            + "  while (i < n * 2) { s = s + sq(k) + i; i = i + 1; } s; };"
+            + "var never = function(k) { while (false == true) { print(k / 0); } k; };"
+            + "print(f(3, 4)); print(never(7));";
+        String out = runProgram(src, false);
+        assertEquals("111\n7\n", out.replace("\r", ""));
+        assertEquals(out, runProgram(src, true));
+
+        Expression prog = Interpreter.parse(CharStreams.fromString(src), true);
+        Expression[] decls = ((BlockExpr) prog).getStatements();
+        FunctionDeclExpr f = (FunctionDeclExpr) ((VarDeclExpr) decls[1]).getExpression();
+        Expression[] stmts = ((BlockExpr) f.getBody()).getStatements();
+        // The locals are declared on entry, and reset before the loop
+        assertTrue(stmts[0] instanceof VarDeclExpr && stmts[1] instanceof VarDeclExpr);
+        Expression[] loop = ((BlockExpr) stmts[4]).getStatements();
+        assertEquals(3, loop.length);
+        assertTrue(loop[0] instanceof AssignExpr);
+        WhileExpr we = (WhileExpr) loop[2];
+        assertTrue(((BinOpExpr) we.getCondition()).getRight() instanceof InvariantExpr);
+    }
+
+    @Test
+    public void testNestedLoopHoisting() {
+        String src = "var f = function(n, k) { var i = 0; var j = 0; var m = 0;"
+            + "  while (i < n) { j = i; m = 0;"
+            + "    while (m < 2) { print(j * k + n * k); m = m + 1; } i = i + 1; } };"
+            + "f(3, 10);";
+        String out = runProgram(src, false);
+        assertEquals("30\n30\n40\n40\n50\n50\n", out.replace("\r", ""));
+        assertEquals(out, runProgram(src, true));
+    }
+
+    @Test
+    public void testIncrementOfStrings() {
+        String src = "var s = \"abc\"; s = 1 + s; print(s); var t = \"xyz\"; t = t + 1; print(t);";
+        String out = runProgram(src, false);
+        assertEquals("1abc\nxyz1\n", out.replace("\r", ""));
+        assertEquals(out, runProgram(src, true));
+        try {
+            runProgram("var t = \"xyz\"; t = t - 1;", false);
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("Cannot apply SUBTRACT to a string", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testIndexMustBeInt() {
+        for (String index : new String[] { "true", "null", "1.0", "\"1\"" }) {
+            for (boolean tagged : new boolean[] { false, true }) {
+                try {
+                    runProgram("var a = [| 1, 2 |]; a[" + index + "];", tagged);
+                    fail(index);
+                } catch (RuntimeException e) {
+                    assertTrue(e.getMessage().endsWith("is not an int"));
+                }
+            }
+        }
+        assertEquals("2\n", runProgram("var a = [| 1, 2 |]; print(a[1]);", true).replace("\r", ""));
+    }
+
+    @Test
+    public void testNoSpecializingWhenConcurrent() throws Exception {
+        Environment env = new Environment(true);
+        Expression prog = Interpreter.parse(CharStreams.fromString(
+                "var f = function(a, b) { a + b; };"));
+        prog.evaluate(env);
+        FunctionDeclExpr f = (FunctionDeclExpr) ((VarDeclExpr) prog).getExpression();
+        Expression ints = Interpreter.parse(CharStreams.fromString("f(1, 2);"));
+        Expression strs = Interpreter.parse(CharStreams.fromString("f(\"a\", 2);"));
+        Thread[] threads = new Thread[4];
+        Throwable[] failure = new Throwable[1];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 1000; i++) {
+                        assertEquals(new IntVal(3), ints.evaluate(env));
+                        assertEquals(new StrVal("a2"), strs.evaluate(env));
+                    }
+                } catch (Throwable e) {
+                    failure[0] = e;
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure[0]);
+        assertFalse(bodyOf(f) instanceof IntOpExpr);
+    }
+}